@@ -1,11 +1,26 @@
-
+import api.UserApiServer;
+import auth.PasswordHasher;
+import auth.SessionStore;
 import components.App;
+import config.AppConfig;
+import java.io.IOException;
 import javax.swing.SwingUtilities;
+import service.UserService;
 
 /**
  * Entry point for the RusByte Net - User Management application. This class
  * initializes the graphical user interface (GUI) using SwingUtilities to ensure
  * thread safety.
+ * <p>
+ * With <code>--headless [--port=8080]</code>, no GUI is shown; the local HTTP
+ * API of {@link UserApiServer} is started instead.
+ * </p>
+ * <p>
+ * The data locations and the storage backend are set with
+ * <code>--key=value</code> arguments, system properties or a properties file
+ * (see {@link AppConfig}), e.g.
+ * <code>--data.dir=/mnt/nvme/rusbyte --storage.backend=binary</code>.
+ * </p>
  *
  * @author Eric Russel M. Lopez
  * @version 23.0.1 (Java SE 23.0.1)
@@ -17,7 +32,39 @@ import javax.swing.SwingUtilities;
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        try {
+            AppConfig config = AppConfig.initialize(args);
+            config.checkStorageFormats();
+            config.createDirectories();
+        } catch (IllegalArgumentException e) {
+            // An invalid setting, or a data file in another format than its storage backend.
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+
+        boolean headless = false;
+        int port = UserApiServer.DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.equals("--headless")) {
+                headless = true;
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            }
+        }
+
+        // Calibrates the password hashing cost before the first login needs it.
+        PasswordHasher.calibrateInBackground();
+
+        if (headless) {
+            System.setProperty("java.awt.headless", "true");
+            UserApiServer server = new UserApiServer(UserService.shared(), SessionStore.shared(), port);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "user-api-shutdown"));
+            System.out.println("RusByte Net - User Management API listening on http://127.0.0.1:" + server.getPort() + "/api");
+            return;
+        }
+
         // This Initializes the application GUI Components on the Event Dispatch Thread (EDT).
         SwingUtilities.invokeLater(App::new);
     }
@@ -0,0 +1,182 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import storage.User;
+
+/**
+ * The small subset of JSON used by the {@link UserApiServer}, so the API does
+ * not need a JSON library.
+ * <p>
+ * Request bodies are flat objects whose values are strings, numbers,
+ * booleans or {@code null}; they are parsed into a map of strings. Responses
+ * are written with {@link #quote(String)} and {@link #user(User)}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+final class Json {
+
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a flat JSON object. Numbers and booleans are kept as their text,
+     * and {@code null} values as {@code null}.
+     *
+     * @param text The JSON text.
+     * @return The members of the object, in their order.
+     * @throws IllegalArgumentException If the text is not a flat JSON object.
+     */
+    static Map<String, String> parseObject(String text) {
+        Json parser = new Json(text);
+        Map<String, String> object = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.string();
+                parser.expect(':');
+                object.put(name, parser.value());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error();
+        }
+        return object;
+    }
+
+    /**
+     * @param value The text to quote, or {@code null}.
+     * @return The value as a JSON string, or <code>null</code>.
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Formats a user without the password.
+     *
+     * @param user The user.
+     * @return The user as a JSON object.
+     */
+    static String user(User user) {
+        return "{\"username\":" + quote(user.username())
+                + ",\"email\":" + quote(user.email())
+                + ",\"role\":" + quote(user.role())
+                + ",\"createdAt\":" + quote(user.createdAt()) + "}";
+    }
+
+    private String value() {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == '"') {
+            return string();
+        }
+        int start = position;
+        while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = text.substring(start, position);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            return literal;
+        }
+        throw error();
+    }
+
+    private String string() {
+        skipWhitespace();
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw error();
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error();
+                    }
+                    position += 4;
+                }
+                default -> throw error();
+            }
+        }
+        throw error();
+    }
+
+    private void expect(char expected) {
+        if (!consume(expected)) {
+            throw error();
+        }
+    }
+
+    private boolean consume(char expected) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Invalid JSON at position " + position);
+    }
+}
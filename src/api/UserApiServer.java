@@ -0,0 +1,360 @@
+package api;
+
+import auth.SessionStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import metrics.Metrics;
+import service.UserService;
+import service.UserServiceException;
+import storage.User;
+
+/**
+ * A local HTTP API over the {@link UserService}, so scripts can register
+ * admins and manage the members without the GUI. It is started by
+ * <code>java Main --headless [--port=8080]</code>.
+ * <p>
+ * The server only listens on the loopback address, and every request is
+ * handled on its own virtual thread, so hundreds of clients can wait on the
+ * storage at the same time without a thread pool to size.
+ * </p>
+ *
+ * <p>
+ * <b>Endpoints:</b> (request and response bodies are JSON)</p>
+ * <ul>
+ * <li><code>GET /api/health</code> - The status and number of members.</li>
+ * <li><code>POST /api/login</code> - Checks
+ * <code>{"email","password"}</code> of an admin and returns a session
+ * token, valid for 12 hours.</li>
+ * <li><code>POST /api/logout</code> - Ends the session of the bearer
+ * token.</li>
+ * <li><code>POST /api/register</code> - Registers an admin from
+ * <code>{"username","email","password"}</code>.</li>
+ * <li><code>GET /api/members?offset=0&amp;limit=100</code> - A page of the
+ * members.</li>
+ * <li><code>GET /api/members/{email}</code> - One member.</li>
+ * <li><code>POST /api/members</code> - Adds a member from
+ * <code>{"username","email","password"}</code>.</li>
+ * <li><code>PUT /api/members/{email}</code> - Changes the details of a
+ * member.</li>
+ * <li><code>DELETE /api/members/{email}</code> - Deletes a member.</li>
+ * </ul>
+ * <p>
+ * The <code>/api/members</code> endpoints need a token from
+ * <code>/api/login</code> as a bearer token, or the credentials of an admin
+ * in an HTTP Basic <code>Authorization</code> header, just like the screens
+ * ask for the admin password before a change. A token is checked with a
+ * single lookup, while Basic credentials pay for a password hash on every
+ * request. Passwords are never included in the responses. Errors are
+ * returned as <code>{"error": message}</code> with the status code of the
+ * {@link UserServiceException.Reason}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserApiServer {
+
+    /**
+     * The port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int BACKLOG = 1024;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String MEMBERS_PATH = "/api/members";
+    private static final Duration TOKEN_TTL = Duration.ofHours(12);
+
+    private final UserService service;
+    private final SessionStore sessions;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a server on a port of the loopback address. The server does
+     * not accept requests until it is started.
+     *
+     * @param service The service that handles the requests.
+     * @param sessions The store of the tokens issued by
+     * <code>/api/login</code>.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public UserApiServer(UserService service, SessionStore sessions, int port) throws IOException {
+        this.service = service;
+        this.sessions = sessions;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/api/health", exchange -> handle(exchange, this::health));
+        server.createContext("/api/login", exchange -> handle(exchange, this::login));
+        server.createContext("/api/logout", exchange -> handle(exchange, this::logout));
+        server.createContext("/api/register", exchange -> handle(exchange, this::register));
+        server.createContext(MEMBERS_PATH, exchange -> handle(exchange, this::members));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to a second for the running ones
+     * to finish.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.close();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * A request handler that returns the response to send.
+     */
+    private interface Route {
+
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private record Response(int status, String body) {
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        long start = Metrics.timer("api.requests").start();
+        Response response;
+        try {
+            response = route.handle(exchange);
+        } catch (UserServiceException e) {
+            response = error(status(e.getReason()), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            Metrics.error("api.request", e);
+            response = error(500, "Internal server error");
+        }
+        try (exchange) {
+            send(exchange, response);
+        } finally {
+            Metrics.counter("api.responses." + response.status() / 100 + "xx").increment();
+            Metrics.timer("api.requests").stop(start);
+        }
+    }
+
+    private Response health(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return methodNotAllowed();
+        }
+        return new Response(200, "{\"status\":\"ok\",\"members\":" + service.countMembers() + "}");
+    }
+
+    private Response login(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return methodNotAllowed();
+        }
+        Map<String, String> body = readBody(exchange);
+        User user = service.login(body.get("email"), body.get("password"));
+        if (user == null) {
+            return error(401, "Invalid email or password.");
+        }
+        String token = sessions.issue(user.email(), TOKEN_TTL);
+        SessionStore.Session session = sessions.find(token);
+        return new Response(200, "{\"token\":" + Json.quote(token)
+                + ",\"expiresAt\":" + Json.quote(session == null ? null : session.expiresAt().toString())
+                + ",\"user\":" + Json.user(user) + "}");
+    }
+
+    private Response logout(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return methodNotAllowed();
+        }
+        sessions.revoke(bearerToken(exchange));
+        return new Response(204, null);
+    }
+
+    private Response register(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return methodNotAllowed();
+        }
+        Map<String, String> body = readBody(exchange);
+        return new Response(201, Json.user(service.registerAdmin(body.get("username"), body.get("email"), body.get("password"))));
+    }
+
+    private Response members(HttpExchange exchange) throws IOException {
+        if (!isAdmin(exchange)) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"RusByte Net\"");
+            return error(401, "Admin credentials are required.");
+        }
+        String path = exchange.getRequestURI().getRawPath();
+        String method = exchange.getRequestMethod();
+        if (path.equals(MEMBERS_PATH) || path.equals(MEMBERS_PATH + "/")) {
+            return switch (method) {
+                case "GET" -> listMembers(exchange);
+                case "POST" -> {
+                    Map<String, String> body = readBody(exchange);
+                    yield new Response(201, Json.user(service.addMember(body.get("username"), body.get("email"), body.get("password"))));
+                }
+                default -> methodNotAllowed();
+            };
+        }
+        if (!path.startsWith(MEMBERS_PATH + "/")) {
+            return error(404, "Not found.");
+        }
+        String email = URLDecoder.decode(path.substring(MEMBERS_PATH.length() + 1), StandardCharsets.UTF_8);
+        return switch (method) {
+            case "GET" -> {
+                User user = service.findMember(email);
+                yield user == null ? error(404, "User not found.") : new Response(200, Json.user(user));
+            }
+            case "PUT" -> {
+                Map<String, String> body = readBody(exchange);
+                yield new Response(200, Json.user(service.updateMember(email, body.get("username"), body.get("email"), body.get("password"))));
+            }
+            case "DELETE" -> {
+                service.deleteMember(email);
+                yield new Response(204, null);
+            }
+            default -> methodNotAllowed();
+        };
+    }
+
+    private Response listMembers(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int offset = Math.max(parseInt(query.get("offset"), 0), 0);
+        int limit = Math.min(Math.max(parseInt(query.get("limit"), DEFAULT_PAGE_SIZE), 0), MAX_PAGE_SIZE);
+
+        List<User> page = service.listMembers(offset, limit);
+        StringBuilder body = new StringBuilder(64 + page.size() * 128);
+        body.append("{\"total\":").append(service.countMembers())
+                .append(",\"offset\":").append(offset)
+                .append(",\"members\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(Json.user(page.get(i)));
+        }
+        return new Response(200, body.append("]}").toString());
+    }
+
+    /**
+     * Checks the bearer token of the request against the sessions, or else
+     * the HTTP Basic credentials against the admin users.
+     */
+    private boolean isAdmin(HttpExchange exchange) {
+        String token = bearerToken(exchange);
+        if (token != null) {
+            SessionStore.Session session = sessions.find(token);
+            return session != null && service.isAdmin(session.email());
+        }
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return false;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        int separator = credentials.indexOf(':');
+        return separator > 0 && service.authenticate(credentials.substring(0, separator), credentials.substring(separator + 1)) != null;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return authorization.substring(7).trim();
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("The request body is too large.");
+            }
+            return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static int status(UserServiceException.Reason reason) {
+        return switch (reason) {
+            case INVALID -> 400;
+            case FORBIDDEN -> 403;
+            case NOT_FOUND -> 404;
+            case DUPLICATE -> 409;
+            case STORAGE -> 500;
+        };
+    }
+
+    private static Response methodNotAllowed() {
+        return error(405, "Method not allowed.");
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, "{\"error\":" + Json.quote(message) + "}");
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes and verifies the passwords of the admin users with PBKDF2
+ * (HMAC-SHA256) and a random salt per user.
+ * <p>
+ * A hash is stored in the password column of <code>users.txt</code> as:
+ * </p>
+ * <pre>
+ * pbkdf2-sha256$iterations$salt$hash
+ * </pre>
+ * <p>
+ * where the salt and hash are Base64 encoded, so the value never contains a
+ * comma. The number of iterations is the cost: every verification costs the
+ * same CPU time as hashing. {@link #shared()} calibrates it once, at startup,
+ * so one verification takes about {@link #DEFAULT_TARGET_MILLIS} on this
+ * machine, but never less than {@link #MIN_ITERATIONS}. Because the cost is
+ * stored with each hash, hashes made with another cost can still be
+ * verified.
+ * </p>
+ * <p>
+ * Passwords of older rows are still plain text. They are verified too, and
+ * {@link #needsRehash(String)} tells the caller to replace them with a hash
+ * after the next successful login. Every comparison is made in constant
+ * time with {@link MessageDigest#isEqual(byte[], byte[])}.
+ * </p>
+ * <p>
+ * A verification takes a noticeable time on purpose, so it must not run on
+ * the Event Dispatch Thread (EDT).
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class PasswordHasher {
+
+    /**
+     * The verification time that {@link #shared()} is calibrated to.
+     */
+    public static final long DEFAULT_TARGET_MILLIS = 100;
+
+    /**
+     * The lowest cost that is used, whatever the calibration measures.
+     */
+    public static final int MIN_ITERATIONS = 100_000;
+
+    private static final int MAX_ITERATIONS = 10_000_000;
+    private static final int CALIBRATION_ITERATIONS = 10_000;
+    private static final int CALIBRATION_STABLE_SAMPLES = 50;
+    private static final long CALIBRATION_MAX_MILLIS = 5000;
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static PasswordHasher shared;
+
+    private final int iterations;
+    private volatile String dummyHash;
+
+    /**
+     * Creates a hasher with a fixed cost.
+     *
+     * @param iterations The number of PBKDF2 iterations of new hashes.
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * @return The hasher of the application, calibrated to
+     * {@link #DEFAULT_TARGET_MILLIS} the first time it is used.
+     */
+    public static synchronized PasswordHasher shared() {
+        if (shared == null) {
+            shared = calibrate(DEFAULT_TARGET_MILLIS);
+        }
+        return shared;
+    }
+
+    /**
+     * Calibrates the {@link #shared()} hasher on a background thread, so the
+     * first login does not wait for it.
+     */
+    public static void calibrateInBackground() {
+        Thread.ofVirtual().name("password-hasher-calibration").start(PasswordHasher::shared);
+    }
+
+    /**
+     * Creates a hasher whose verifications take about the given time on this
+     * machine. Hashes with a small cost are timed until the fastest time
+     * stops improving (at most about 5 seconds), and the cost is scaled from
+     * the fastest one to the target.
+     *
+     * @param targetMillis The target verification time in milliseconds.
+     * @return The calibrated hasher.
+     */
+    public static PasswordHasher calibrate(long targetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        long best = Long.MAX_VALUE;
+        long begin = System.nanoTime();
+        // Keeps the fastest sample, which is only reached once the JIT has
+        // compiled the hash, so it samples until the best time stops improving
+        for (int sinceImprovement = 0; sinceImprovement < CALIBRATION_STABLE_SAMPLES; sinceImprovement++) {
+            long start = System.nanoTime();
+            pbkdf2("calibration", salt, CALIBRATION_ITERATIONS);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed < best * 0.98) {
+                sinceImprovement = -1;
+            }
+            best = Math.min(best, elapsed);
+            if (start - begin > CALIBRATION_MAX_MILLIS * 1_000_000) {
+                break;
+            }
+        }
+        double scaled = (double) CALIBRATION_ITERATIONS * targetMillis * 1_000_000 / Math.max(best, 1);
+        return new PasswordHasher((int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, scaled)));
+    }
+
+    /**
+     * @return The number of PBKDF2 iterations of new hashes.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Hashes a password with a new random salt.
+     *
+     * @param password The password.
+     * @return The value to store in the password column.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    /**
+     * Checks a password against a stored hash or an older plain text
+     * password.
+     *
+     * @param password The password to check.
+     * @param stored The value of the password column.
+     * @return {@code true} if the password matches.
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            // Compares digests, so the time does not depend on the length or content
+            return MessageDigest.isEqual(sha256(password), sha256(stored));
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return parts.length == 4 && storedIterations > 0
+                    && MessageDigest.isEqual(pbkdf2(password, salt, storedIterations), expected);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Spends the time of a verification without a stored password, so a
+     * login with an unknown email takes as long as one with a wrong password.
+     *
+     * @param password The password that was entered.
+     */
+    public void verifyDummy(String password) {
+        if (dummyHash == null) {
+            dummyHash = hash("dummy");
+        }
+        verify(password == null ? "" : password, dummyHash);
+    }
+
+    /**
+     * Checks if a stored password should be replaced after a successful
+     * login: it is plain text, or hashed with less than half the current
+     * cost.
+     *
+     * @param stored The value of the password column.
+     * @return {@code true} if the password should be hashed again.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(stored.split("\\$")[1]) < iterations / 2;
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @param stored The value of the password column.
+     * @return {@code true} if the value is a hash made by this class.
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BYTES * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
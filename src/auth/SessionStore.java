@@ -0,0 +1,264 @@
+package auth;
+
+import config.AppConfig;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import metrics.Metrics;
+
+/**
+ * Issues and checks the login sessions of the admin users.
+ * <p>
+ * A session is identified by a random, opaque token that expires after a
+ * while. The client only keeps the token (the GUI stores it in
+ * <code>userSession.txt</code>, HTTP clients send it as a bearer token), and
+ * the store keeps an in-memory map from the token to the email of the admin
+ * and the expiry, so checking a session is a single lookup without any disk
+ * read.
+ * </p>
+ * <p>
+ * The sessions are also written to <code>sessions.txt</code>, so a login
+ * survives a restart of the application. Only a SHA-256 hash of each token
+ * is stored, so the file cannot be used to log in. The file is a log: a new
+ * session appends a line <code>tokenHash,email,expiresAt</code> and a
+ * revocation appends a line with only the <code>tokenHash</code>, so a login
+ * or logout writes one line instead of every session. When most of the lines
+ * are revoked or expired sessions, and when the store is loaded, the file is
+ * compacted: it is rewritten with only the sessions that have not expired.
+ * Expired sessions are also dropped from memory when they are found.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class SessionStore {
+
+    /**
+     * How long a session of the GUI stays valid.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int COMPACT_MIN_LINES = 1024;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static SessionStore shared;
+
+    /**
+     * A login session.
+     *
+     * @param email The email of the admin user that logged in.
+     * @param expiresAt When the session stops being valid.
+     */
+    public record Session(String email, Instant expiresAt) {
+
+        /**
+         * @param now The current time.
+         * @return {@code true} if the session is no longer valid.
+         */
+        public boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+
+    private final File file;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private int fileLines;
+
+    /**
+     * Creates a store backed by the given file and loads the sessions in it
+     * that have not expired.
+     *
+     * @param file The file of the sessions. It is created on the first login.
+     */
+    public SessionStore(File file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * @return The session store of the application, backed by
+     * <code>./src/auth/loginSession/sessions.txt</code> unless another file
+     * is set in the {@link AppConfig}.
+     */
+    public static synchronized SessionStore shared() {
+        if (shared == null) {
+            shared = new SessionStore(new File(AppConfig.current().sessionStoreFile()));
+        }
+        return shared;
+    }
+
+    /**
+     * Starts a new session for an admin user.
+     *
+     * @param email The email of the admin.
+     * @param ttl How long the session stays valid.
+     * @return The token of the new session.
+     */
+    public String issue(String email, Duration ttl) {
+        byte[] random = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        String key = hash(token);
+        Session session = new Session(email, Instant.now().plus(ttl));
+        sessions.put(key, session);
+        Metrics.counter("auth.session.issued").increment();
+        append(key + "," + session.email() + "," + session.expiresAt().getEpochSecond());
+        return token;
+    }
+
+    /**
+     * Looks up the session of a token.
+     *
+     * @param token The token of the session, or {@code null}.
+     * @return The session, or {@code null} if the token is unknown, revoked
+     * or expired.
+     */
+    public Session find(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String key = hash(token);
+        Session session = sessions.get(key);
+        if (session != null && session.isExpired(Instant.now())) {
+            sessions.remove(key, session);
+            Metrics.counter("auth.session.expired").increment();
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Ends a session. Unknown tokens are ignored.
+     *
+     * @param token The token of the session, or {@code null}.
+     */
+    public void revoke(String token) {
+        if (token == null) {
+            return;
+        }
+        String key = hash(token);
+        if (sessions.remove(key) != null) {
+            append(key);
+        }
+    }
+
+    /**
+     * Reads the sessions file in order, skipping expired and malformed lines
+     * and the sessions revoked by a later line, and compacts it if it has any
+     * such line.
+     */
+    private synchronized void load() {
+        if (!file.exists()) {
+            return;
+        }
+        Instant now = Instant.now();
+        int lines = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                String[] fields = line.split(",");
+                if (fields.length == 1) {
+                    sessions.remove(fields[0]);
+                    continue;
+                }
+                if (fields.length != 3) {
+                    continue;
+                }
+                try {
+                    Session session = new Session(fields[1], Instant.ofEpochSecond(Long.parseLong(fields[2])));
+                    if (!session.isExpired(now)) {
+                        sessions.put(fields[0], session);
+                    }
+                } catch (NumberFormatException e) {
+                    // Skips a malformed line
+                }
+            }
+        } catch (IOException e) {
+            Metrics.error("auth.session.read", e);
+            return; // Never rewrites a file that could not be read
+        }
+        fileLines = lines;
+        if (fileLines > sessions.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Appends a line to the sessions file, and compacts the file once most
+     * of its lines are no longer needed.
+     */
+    private synchronized void append(String line) {
+        try {
+            Files.writeString(file.toPath(), line + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileLines++;
+        } catch (IOException e) {
+            Metrics.error("auth.session.save", e);
+            return;
+        }
+        if (fileLines >= COMPACT_MIN_LINES && fileLines > 2 * sessions.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the sessions file with the sessions that have not expired.
+     */
+    private synchronized void compact() {
+        Instant now = Instant.now();
+        List<String> lines = new ArrayList<>(sessions.size());
+        sessions.forEach((key, session) -> {
+            if (!session.isExpired(now)) {
+                lines.add(key + "," + session.email() + "," + session.expiresAt().getEpochSecond());
+            }
+        });
+
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp, StandardCharsets.UTF_8))) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            fileLines = lines.size();
+            Metrics.counter("auth.session.compacted").increment();
+        } catch (IOException e) {
+            Metrics.error("auth.session.save", e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package auth;
 
+import config.AppConfig;
 import java.io.*;
-import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import metrics.Metrics;
+import service.UserService;
+import service.UserServiceException;
+import storage.Repositories;
+import storage.User;
+import storage.UserRepository;
 
 /**
  * <p>
@@ -17,47 +21,59 @@ import java.util.List;
  * <ul>
  * <li>User login authentication.</li>
  * <li>Register admin users.</li>
- * <li>Session management for authenticated users.</li>
+ * <li>Session management for authenticated users through the
+ * {@link SessionStore}.</li>
  * <li>Logout functionality to clear user sessions.</li>
- * <li>Support for reading authentication data from a file.</li>
+ * <li>Support for reading authentication data from the shared
+ * {@link UserRepository}.</li>
  * </ul>
  *
+ * <p>
+ * The session file <code>./src/auth/loginSession/userSession.txt</code> only
+ * holds the token of the current session. It is read once, when the
+ * application starts, and the token is shared by every instance of this
+ * class, so checking the session never reads the disk.
+ * </p>
+ *
  * @author Eric Russel M. Lopez
  * @version 23.0.1 (Java SE 23.0.1)
  * @since 2025
  */
 public class UserAuthenticator {
 
-    protected String[] loadedUserSession = readUserSessionFromFile("./src/auth/loginSession/userSession.txt");
-    List<String[]> loadedUsers = readUsersFromFile("./src/data/users.txt");
+    private static final String SESSION_FILE = AppConfig.current().sessionFile();
+
+    private static volatile String sessionToken = readSessionTokenFromFile(SESSION_FILE);
+
+    final UserRepository loadedUsers = Repositories.admins();
 
     /**
      * <p>
-     * This method verifies if the user stored in {@code loadedUserSession}
-     * exists within the list of registered users ({@code loadedUsers}). If a
-     * matching user is found, the authentication is considered valid.
+     * This method verifies if the session token of the application belongs
+     * to a session in the {@link SessionStore} that has not expired, and if
+     * the admin of that session still exists within the registered users
+     * ({@code loadedUsers}). If so, the authentication is considered valid.
      * </p>
      *
      * @return {@code true} if the user session matches a registered user,
      * otherwise {@code false}.
      */
     public final boolean isAuthenticated() {
-        if (loadedUsers != null && !loadedUsers.isEmpty() && loadedUserSession != null) {
-            for (String[] user : loadedUsers) {
-                if (user[0].equals(loadedUserSession[0]) && user[1].equals(loadedUserSession[1]) && user[2].equals(loadedUserSession[2])) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return currentUser() != null;
     }
 
     /**
      * Authenticates a user based on the provided username, email, and password.
      * <p>
-     * This method authenticate admin users to find a match for the given email
-     * and password. If a match is found, the user session is saved to a file,
-     * and authentication is successful.
+     * This method checks the credentials through the {@link UserService}, which
+     * looks up the admin user by email and checks that the given password
+     * matches. If a match is found, a new session is started in the
+     * {@link SessionStore}, its token is saved to the session file, and
+     * authentication is successful.
+     * </p>
+     * <p>
+     * The password is verified with the {@link PasswordHasher}, which takes
+     * some time on purpose, so this must not be called on the EDT.
      * </p>
      *
      * @param username The username of the user (not used for authentication but
@@ -68,15 +84,13 @@ public class UserAuthenticator {
      * {@code false}.
      */
     public boolean login(String username, String email, String password) {
-
-        if (loadedUsers != null && !loadedUsers.isEmpty()) {
-            for (String[] user : loadedUsers) {
-                username = user[0];
-                if (user[1].equals(email) && user[2].equals(password)) {
-                    saveUserSessionToFile(username, email, password);
-                    return true;
-                }
-            }
+        User user = UserService.shared().login(email, password);
+        if (user != null) {
+            SessionStore.shared().revoke(sessionToken);
+            String token = SessionStore.shared().issue(user.email(), SessionStore.DEFAULT_TTL);
+            sessionToken = token;
+            saveSessionTokenToFile(token);
+            return true;
         }
         return false;
     }
@@ -84,56 +98,51 @@ public class UserAuthenticator {
     /**
      * Confirms administrative changes by verifying the provided password.
      * <p>
-     * This method reads the currently logged-in user's session from the session
-     * file and checks if the stored password matches the provided password. If
-     * they match, the CRUD operation is allowed.
+     * This method looks up the currently logged-in admin through the session
+     * token in memory and verifies the provided password against the stored
+     * password hash of that admin. If they match, the CRUD operation is
+     * allowed.
+     * </p>
+     * <p>
+     * The password is verified with the {@link PasswordHasher}, so this must
+     * not be called on the EDT.
      * </p>
      *
      * @param password The password of the currently logged-in admin user.
      * @return {@code true} if the password matches and confirmation is
      * successful, otherwise {@code false}.
-     * @see #readUserSessionFromFile(String)
      */
     public boolean confirmUserAdminChanges(String password) {
-        if (readUserSessionFromFile("./src/auth/loginSession/userSession.txt") != null) {
-            if (readUserSessionFromFile("./src/auth/loginSession/userSession.txt")[2].equals(password)) {
-                return true;
-            }
-        }
-        return false;
+        User user = currentUser();
+        return user != null && UserService.shared().authenticate(user.email(), password) != null;
     }
 
     /**
-     * Saves the user session to a file after a successful login.
-     * <p>
-     * This method appends the user's session details (username, email, and
-     * password) to the session file located at
-     * <code>./src/auth/loginSession/userSession.txt</code>.
-     * </p>
+     * Replaces the session file with the token of the new session.
      *
-     * @param username The username of the logged-in user.
-     * @param email The email of the logged-in user.
-     * @param password The password of the logged-in user.
-     * @see #readUserSessionFromFile(String)
+     * @param token The token of the session, or an empty string to clear the
+     * file.
      */
-    private static void saveUserSessionToFile(String username, String email, String password) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("./src/auth/loginSession/userSession.txt", true))) {
-            writer.write(username + "," + email + "," + password);
-            writer.newLine();
+    private static void saveSessionTokenToFile(String token) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(SESSION_FILE))) {
+            writer.write(token);
         } catch (IOException e) {
+            Metrics.error("auth.session.save", e);
         }
     }
 
     /**
      * Registers a new user (admin) and saves their details to the users file.
      * <p>
-     * This method ensures that duplicate emails cannot be registered. If the
-     * email is already present in the existing user list, registration will
-     * fail. If registration is successful, the user details are stored in
-     * <code>./src/data/users.txt</code> in the format:
+     * This method registers the admin through the {@link UserService}, which
+     * validates the details and ensures that duplicate emails cannot be
+     * registered. If the email is already present in the admin repository,
+     * registration will fail. If registration is successful, the user details
+     * are stored in <code>./src/data/users.txt</code> in the format:
      * <pre>
-     * username,email,password,admin
-     * </pre> The role is set to "admin" by default.
+     * username,email,passwordHash,admin,createdAt
+     * </pre> The role is set to "admin" by default. The password is hashed
+     * with the {@link PasswordHasher}, so this must not be called on the EDT.
      * </p>
      *
      * @param username The username of the new user.
@@ -141,110 +150,84 @@ public class UserAuthenticator {
      * consistency).
      * @param password The password of the new user.
      * @return {@code true} if registration is successful, {@code false} if the
-     * email already exists or an error occurs.
+     * details are invalid, the email already exists or an error occurs.
      */
     public boolean registerUser(String username, String email, String password) {
-        email = email.toLowerCase();
-
-        if (loadedUsers != null && !loadedUsers.isEmpty()) {
-            for (String[] user : loadedUsers) {
-                if (user[1].equals(email)) {
-                    return false;
-                }
-            }
-        }
-
-        File file = new File("./src/data/users.txt");
-
-        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
-            LocalDate currentDate = LocalDate.now();
-            if (file.length() > 0) {
-                raf.seek(file.length() - 1);
-                char lastChar = (char) raf.read();
-
-                if (lastChar != '\n') {
-                    writer.newLine();
-                }
-            }
-
-            writer.write(username + "," + email + "," + password + ",admin," + currentDate);
-            writer.newLine();
+        try {
+            UserService.shared().registerAdmin(username, email, password);
             return true;
-
-        } catch (IOException e) {
+        } catch (UserServiceException e) {
+            return false;
         }
-
-        return false;
     }
 
     /**
-     * Reads the stored user session details from a specified file.
-     * <p>
-     * This method retrieves the first line of the file and splits it into an
-     * array based on commas (<code>,</code>). If the file is empty or an error
-     * occurs, it returns {@code null}.
-     * </p>
+     * Returns the session of the currently logged-in user.
      *
-     * @param file The path to the session file.
      * @return A {@code String[]} containing the session details (username,
-     * email, password), or {@code null} if the file is empty or an error
-     * occurs.
+     * email), or {@code null} if no user is logged in.
      */
-    private String[] readUserSessionFromFile(String file) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line = reader.readLine();
+    public String[] getUserSession() {
+        User user = currentUser();
+        return user == null ? null : new String[]{user.username(), user.email()};
+    }
 
-            if (line != null) {
-                return line.split(",");
-            } else {
-                return null;
-            }
-        } catch (IOException e) {
-            return null;
-        }
+    /**
+     * Resolves the session token to the logged-in admin, without any disk
+     * read.
+     *
+     * @return The admin of the current session, or {@code null} if there is
+     * no valid session.
+     */
+    private User currentUser() {
+        SessionStore.Session session = SessionStore.shared().find(sessionToken);
+        return session == null ? null : loadedUsers.findByEmail(session.email());
     }
 
     /**
-     * This method reads the file line by line, splits each line into an array
-     * of strings, and stores the arrays in a list.
+     * Reads the session token from a specified file.
+     * <p>
+     * This method retrieves the first line of the file. If the file is empty
+     * or an error occurs, it returns {@code null}.
      * </p>
      *
-     * @param file The path to the file containing user data.
-     * @return A {@link List} of string arrays, where each array represents a
-     * user. Returns {@code null} if an {@link IOException} occurs while reading
-     * the file.
+     * @param file The path to the session file.
+     * @return The session token, or {@code null} if the file is empty or an
+     * error occurs.
      */
-    private List<String[]> readUsersFromFile(String file) {
-        List<String[]> users = new ArrayList<>();
+    private static String readSessionTokenFromFile(String file) {
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                users.add(line.split(","));
-            }
-            return users;
+            String line = reader.readLine();
+            return line == null || line.isBlank() ? null : line.trim();
         } catch (IOException e) {
+            Metrics.error("auth.session.read", e);
             return null;
         }
     }
 
     /**
      * <p>
-     * This method overwrites the user session file with an empty string,
-     * effectively removing any stored session data. It ensures that the user is
-     * logged out and must re-authenticate on the next login attempt.
+     * This method ends the current session in the {@link SessionStore} and
+     * overwrites the user session file with an empty string, effectively
+     * removing any stored session data. It ensures that the user is logged
+     * out and must re-authenticate on the next login attempt.
      *
      * It will called automatically if the {@code isAuthenticated() is false}
      * </p>
      */
     public void logout() {
+        String token = sessionToken;
+        sessionToken = null;
+        SessionStore.shared().revoke(token);
         try {
-            File file = new File("./src/auth/loginSession/userSession.txt");
+            File file = new File(SESSION_FILE);
 
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
                 writer.write("");
             }
 
         } catch (IOException e) {
+            Metrics.error("auth.logout", e);
         }
     }
 }
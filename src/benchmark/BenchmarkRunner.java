@@ -0,0 +1,411 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A small, dependency-free micro benchmark harness.
+ * <p>
+ * Every benchmark runs a number of timed warmup iterations, which are thrown
+ * away, followed by timed measurement iterations. An iteration calls the
+ * operation in a loop until the iteration time is used up (at least once).
+ * The result of every call is consumed by a {@link Blackhole}, so that the
+ * JIT cannot remove the work, without the cost of using the result. For each
+ * benchmark it reports:
+ * </p>
+ * <ul>
+ * <li>Throughput (operations per second).</li>
+ * <li>Average latency per operation, with the standard deviation across the
+ * measurement iterations of all forks.</li>
+ * <li>Allocated bytes per operation and the allocation rate, measured on the
+ * benchmark thread with {@code com.sun.management.ThreadMXBean}.</li>
+ * <li>Garbage collections and the time spent in them during measurement.</li>
+ * </ul>
+ * <p>
+ * Every benchmark and parameter is measured in its own JVM (a fork), started
+ * with the JVM options and class path of this one, so the benchmarks that
+ * run first cannot warm up or pollute the profile of shared code for the
+ * ones that follow. The benchmark class runs as usual in this JVM, but
+ * {@link #run(String, String, Operation)} only records the benchmarks;
+ * {@link #printSummary()} then runs the benchmark class again in a fork per
+ * benchmark and fork, which measures only that benchmark and reports the
+ * result back. With <code>--forks=0</code>, the benchmarks are measured in
+ * this JVM instead.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class BenchmarkRunner {
+
+    /**
+     * An operation to benchmark. The returned value is consumed by the
+     * runner.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        Object run() throws Exception;
+    }
+
+    /**
+     * Consumes the results of the operations. Each result is compared
+     * against a value the JIT cannot predict, and only rarely published to a
+     * field, so the result has to be computed, but consuming it costs next to
+     * nothing and does not keep it reachable.
+     */
+    static final class Blackhole {
+
+        private int random = (int) System.nanoTime();
+        private int mask = 1;
+        private volatile WeakReference<Object> published;
+
+        void consume(Object result) {
+            random = random * 1664525 + 1013904223;
+            if ((random & mask) == 0) {
+                published = new WeakReference<>(result);
+                mask = (mask << 1) + 1; // Ever more rarely
+            }
+        }
+    }
+
+    private static final String RESULT_PREFIX = "#result\t";
+
+    private final Class<?> benchmarks;
+    private final String[] args;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final int forks;
+    private final String filter;
+    private final String forkedBenchmark;
+    private final String forkedParameter;
+    private final Blackhole blackhole = new Blackhole();
+    private final Map<String, String[]> forkedRuns = new LinkedHashMap<>();
+    private final List<String> results = new ArrayList<>();
+
+    private BenchmarkRunner(Class<?> benchmarks, String[] args, int warmupIterations, int measurementIterations,
+            long iterationMillis, int forks, String filter, String forkedBenchmark, String forkedParameter) {
+        this.benchmarks = benchmarks;
+        this.args = args;
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.forks = forks;
+        this.filter = filter;
+        this.forkedBenchmark = forkedBenchmark;
+        this.forkedParameter = forkedParameter;
+    }
+
+    /**
+     * Creates a runner from command line options:
+     * <code>--warmup=5 --iterations=5 --time=1000 --forks=1 --filter=text</code>.
+     *
+     * @param benchmarks The class whose {@code main} method runs the
+     * benchmarks. It is started again with the same arguments in every fork.
+     * @param args The command line arguments. Unknown arguments are ignored.
+     * @return The runner.
+     */
+    public static BenchmarkRunner fromArgs(Class<?> benchmarks, String[] args) {
+        return new BenchmarkRunner(benchmarks, args,
+                Integer.parseInt(option(args, "warmup", "5")),
+                Integer.parseInt(option(args, "iterations", "5")),
+                Long.parseLong(option(args, "time", "1000")),
+                Integer.parseInt(option(args, "forks", "1")),
+                option(args, "filter", null),
+                option(args, "fork.benchmark", null),
+                option(args, "fork.parameter", null));
+    }
+
+    /**
+     * Returns the value of a <code>--name=value</code> command line option.
+     *
+     * @param args The command line arguments.
+     * @param name The name of the option.
+     * @param defaultValue The value if the option is missing.
+     * @return The value of the option.
+     */
+    public static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Checks if a benchmark passes the filter of this runner, so that
+     * expensive fixtures of filtered out benchmarks can be skipped. In a
+     * fork, only the benchmark of the fork passes.
+     *
+     * @param name The name of the benchmark.
+     * @return {@code true} if the benchmark will run.
+     */
+    public boolean isSelected(String name) {
+        if (isFork()) {
+            return name.equals(forkedBenchmark);
+        }
+        return filter == null || name.contains(filter);
+    }
+
+    /**
+     * Checks if any benchmark will run with a parameter, so that the
+     * fixtures of the other parameters can be skipped in a fork.
+     *
+     * @param parameter The parameter (e.g. the number of users).
+     * @return {@code true} if this is not a fork, or the fork of a benchmark
+     * with this parameter.
+     */
+    public boolean isSelectedParameter(String parameter) {
+        return !isFork() || parameter.equals(forkedParameter);
+    }
+
+    /**
+     * @return {@code true} if this JVM is a fork that measures a single
+     * benchmark.
+     */
+    public boolean isFork() {
+        return forkedBenchmark != null;
+    }
+
+    /**
+     * Checks if a benchmark is measured in this JVM, and not in a fork, so
+     * that the benchmark class only reports what it observed around a
+     * benchmark where the benchmark actually ran.
+     *
+     * @param name The name of the benchmark.
+     * @param parameter The parameter of the run.
+     * @return {@code true} if {@link #run(String, String, Operation)}
+     * measures the benchmark in this JVM.
+     */
+    public boolean measuresHere(String name, String parameter) {
+        return isSelected(name) && isSelectedParameter(parameter) && (forks == 0 || isFork());
+    }
+
+    /**
+     * Runs a benchmark and prints its result. If the benchmarks are forked,
+     * the benchmark is only recorded here and measured in a fork by
+     * {@link #printSummary()}.
+     *
+     * @param name The name of the benchmark.
+     * @param parameter The parameter of this run (e.g. the number of users).
+     * @param operation The operation to measure.
+     */
+    public void run(String name, String parameter, Operation operation) {
+        if (!isSelected(name) || !isSelectedParameter(parameter)) {
+            return;
+        }
+        if (forks > 0 && !isFork()) {
+            forkedRuns.put(name + "\t" + parameter, new String[]{name, parameter});
+            return;
+        }
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                iteration(operation);
+            }
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().threadId();
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTime();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+            double[] nanosPerOp = new double[measurementIterations];
+            long totalOps = 0;
+            long totalNanos = 0;
+            for (int i = 0; i < measurementIterations; i++) {
+                long[] iteration = iteration(operation);
+                totalOps += iteration[0];
+                totalNanos += iteration[1];
+                nanosPerOp[i] = (double) iteration[1] / iteration[0];
+            }
+
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            long gcCount = gcCount() - gcCountBefore;
+            long gcMillis = gcTime() - gcTimeBefore;
+            if (isFork()) {
+                System.out.println(RESULT_PREFIX + String.join("\t", String.valueOf(totalOps), String.valueOf(totalNanos),
+                        String.valueOf(allocated), String.valueOf(gcCount), String.valueOf(gcMillis),
+                        Arrays.stream(nanosPerOp).mapToObj(Double::toString).collect(Collectors.joining(","))));
+            } else {
+                report(name, parameter, totalOps, totalNanos, nanosPerOp, allocated, gcCount, gcMillis);
+            }
+        } catch (Exception e) {
+            failed(name, parameter, e.toString());
+        }
+    }
+
+    /**
+     * Measures the recorded benchmarks in their forks, if the benchmarks are
+     * forked, and prints the results of every benchmark run so far as one
+     * table. Prints nothing in a fork.
+     */
+    public void printSummary() {
+        if (isFork()) {
+            return;
+        }
+        for (String[] run : forkedRuns.values()) {
+            runForks(run[0], run[1]);
+        }
+        forkedRuns.clear();
+        System.out.println();
+        System.out.println(header());
+        for (String result : results) {
+            System.out.println(result);
+        }
+    }
+
+    /**
+     * Measures a benchmark in {@link #forks} new JVMs, one after the other,
+     * and reports the iterations of all forks together. The output of the
+     * forks other than their result is passed through.
+     */
+    private void runForks(String name, String parameter) {
+        long ops = 0;
+        long nanos = 0;
+        long allocated = 0;
+        long gcCount = 0;
+        long gcMillis = 0;
+        double[] nanosPerOp = new double[0];
+        for (int fork = 0; fork < forks; fork++) {
+            String[] result;
+            try {
+                result = fork(name, parameter);
+            } catch (IOException e) {
+                failed(name, parameter, e.toString());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed(name, parameter, e.toString());
+                return;
+            }
+            if (result == null) {
+                failed(name, parameter, "fork " + (fork + 1) + " reported no result");
+                return;
+            }
+            ops += Long.parseLong(result[0]);
+            nanos += Long.parseLong(result[1]);
+            allocated += Long.parseLong(result[2]);
+            gcCount += Long.parseLong(result[3]);
+            gcMillis += Long.parseLong(result[4]);
+            double[] forkNanosPerOp = result.length < 6 ? new double[0]
+                    : Arrays.stream(result[5].split(",")).mapToDouble(Double::parseDouble).toArray();
+            int previous = nanosPerOp.length;
+            nanosPerOp = Arrays.copyOf(nanosPerOp, previous + forkNanosPerOp.length);
+            System.arraycopy(forkNanosPerOp, 0, nanosPerOp, previous, forkNanosPerOp.length);
+        }
+        report(name, parameter, ops, nanos, nanosPerOp, allocated, gcCount, gcMillis);
+    }
+
+    /**
+     * Runs the benchmark class in a new JVM that measures only one
+     * benchmark.
+     *
+     * @return The fields of the result line of the fork, or {@code null} if
+     * it reported none.
+     */
+    private String[] fork(String name, String parameter) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(benchmarks.getName());
+        command.addAll(Arrays.asList(args));
+        command.add("--fork.benchmark=" + name);
+        command.add("--fork.parameter=" + parameter);
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String[] result = null;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    result = line.substring(RESULT_PREFIX.length()).split("\t");
+                } else {
+                    System.out.println(line);
+                }
+            }
+        }
+        process.waitFor();
+        return result;
+    }
+
+    /**
+     * Runs the operation until the iteration time is used up.
+     *
+     * @return The number of operations and the elapsed nanoseconds.
+     */
+    private long[] iteration(Operation operation) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            blackhole.consume(operation.run());
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return new long[]{ops, elapsed};
+    }
+
+    private void failed(String name, String parameter, String reason) {
+        String line = String.format(Locale.ROOT, "%-28s %10s  failed: %s", name, parameter, reason);
+        results.add(line);
+        System.out.println(line);
+    }
+
+    private void report(String name, String parameter, long ops, long nanos, double[] nanosPerOp, long allocated, long gcCount, long gcMillis) {
+        double mean = (double) nanos / ops;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double stdDev = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+        double seconds = nanos / 1e9;
+
+        String line = String.format(Locale.ROOT, "%-28s %10s %14.3f %14.3f +- %-10.3f %14.1f %12.1f %6d %8d",
+                name, parameter, ops / seconds, mean / 1e6, stdDev / 1e6, (double) allocated / ops, allocated / seconds / (1024 * 1024), gcCount, gcMillis);
+        if (results.isEmpty()) {
+            System.out.println(header());
+        }
+        results.add(line);
+        System.out.println(line);
+    }
+
+    private static String header() {
+        return String.format(Locale.ROOT, "%-28s %10s %14s %14s    %-10s %14s %12s %6s %8s",
+                "Benchmark", "(users)", "ops/s", "avg ms/op", "stddev", "alloc B/op", "alloc MB/s", "gc", "gc ms");
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}
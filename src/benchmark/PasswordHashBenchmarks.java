@@ -0,0 +1,76 @@
+package benchmark;
+
+import auth.PasswordHasher;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Benchmarks the CPU cost of one admin login, which is dominated by the
+ * password verification of {@link PasswordHasher}, at a range of cost
+ * settings (PBKDF2 iterations).
+ * <p>
+ * It first prints the cost that {@link PasswordHasher#calibrate(long)}
+ * chooses on this machine for the target time, then the usual
+ * {@link BenchmarkRunner} results, followed by the CPU time of one
+ * verification at every cost.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * java benchmark.PasswordHashBenchmarks [--costs=10000,50000,100000,200000,400000,600000]
+ *     [--target=100] [--warmup=5] [--iterations=5] [--time=1000] [--forks=1]
+ * </pre>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class PasswordHashBenchmarks {
+
+    private static final String PASSWORD = "Russel@2025";
+    private static final int CPU_SAMPLES = 5;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = BenchmarkRunner.fromArgs(PasswordHashBenchmarks.class, args);
+        long target = Long.parseLong(BenchmarkRunner.option(args, "target", String.valueOf(PasswordHasher.DEFAULT_TARGET_MILLIS)));
+
+        String[] costs = BenchmarkRunner.option(args, "costs", "10000,50000,100000,200000,400000,600000").split(",");
+        if (!runner.isFork()) {
+            PasswordHasher calibrated = PasswordHasher.calibrate(target);
+            System.out.printf(Locale.ROOT, "Calibrated cost for %d ms: %d iterations%n%n", target, calibrated.getIterations());
+        }
+
+        for (String cost : costs) {
+            if (runner.isSelectedParameter(cost.trim())) {
+                PasswordHasher hasher = new PasswordHasher(Integer.parseInt(cost.trim()));
+                String stored = hasher.hash(PASSWORD);
+                runner.run("login.verify", cost.trim(), () -> hasher.verify(PASSWORD, stored));
+            }
+        }
+        PasswordHasher plaintext = new PasswordHasher(Integer.parseInt(costs[0].trim()));
+        runner.run("login.verify.plaintext", "-", () -> plaintext.verify(PASSWORD, PASSWORD));
+        runner.printSummary();
+        if (runner.isFork()) {
+            return;
+        }
+        System.out.println();
+
+        // Measured after the runs above, so the hash is compiled by the JIT
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.printf(Locale.ROOT, "%12s %18s%n", "iterations", "CPU ms / login");
+        for (String cost : costs) {
+            PasswordHasher hasher = new PasswordHasher(Integer.parseInt(cost.trim()));
+            String stored = hasher.hash(PASSWORD);
+            hasher.verify(PASSWORD, stored);
+
+            long cpuBefore = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < CPU_SAMPLES; i++) {
+                hasher.verify(PASSWORD, stored);
+            }
+            double cpuMillis = (threads.getCurrentThreadCpuTime() - cpuBefore) / 1e6 / CPU_SAMPLES;
+            System.out.printf(Locale.ROOT, "%12d %18.3f%n", hasher.getIterations(), cpuMillis);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package benchmark;
+
+import components.userManagementUtils.RoleBasedRenderer;
+import components.userManagementUtils.UserTableModel;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingConstants;
+import javax.swing.UIManager;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
+import javax.swing.table.TableRowSorter;
+import metrics.Metrics;
+import storage.User;
+import util.CustomHeaderRenderer;
+import util.customImageResizer;
+
+/**
+ * Benchmarks the paint-time work of the user table: the renderer calls the
+ * table makes for every visible cell, and the repaint of its header.
+ * <p>
+ * One operation renders one screen of the sorted table
+ * ({@value #VISIBLE_ROWS} rows of 5 columns) through
+ * {@link JTable#prepareRenderer(TableCellRenderer, int, int)}, the same call
+ * the table UI makes while painting, and scrolls one row down for the next
+ * operation. The <code>alloc B/op</code> column shows the garbage of a
+ * painted screen, which is 0 for the {@link RoleBasedRenderer} once it is
+ * warmed up.
+ * </p>
+ * <ul>
+ * <li><b>render.cells</b> - The {@link RoleBasedRenderer} of the user
+ * table.</li>
+ * <li><b>render.cells.previous</b> - The renderer before it was reworked,
+ * which created a font and a border per cell and read the Role cell of the
+ * row through the sorter for every column, for comparison.</li>
+ * <li><b>render.header</b> - Paints the 5 column headers with their
+ * {@link CustomHeaderRenderer}s into an image, as the header does on every
+ * scroll, resize and hover.</li>
+ * <li><b>render.header.previous</b> - The same with the header renderer
+ * before it was reworked, which loaded the icon file, scaled it and created
+ * a label and a font on every paint, for comparison. It reads the icons from
+ * <code>./src/icons</code>, so run the benchmarks from the project
+ * directory.</li>
+ * </ul>
+ * <p>
+ * After the header benchmark, the number of images the {@link util.IconCache}
+ * scaled while painting the header is printed, which is 0: the header paints
+ * no longer read or scale any image.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * java benchmark.TableRenderBenchmarks [--rows=100000] [--warmup=5] [--iterations=5] [--time=1000] [--forks=1]
+ *     [--filter=render]
+ * </pre>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class TableRenderBenchmarks {
+
+    private static final int VISIBLE_ROWS = 25;
+    private static final String[] HEADER_ICONS = {"user-solid.png", "envelope-solid.png", "key-solid.png",
+        "user-tie-solid.png", "calendar-solid.png"};
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkRunner runner = BenchmarkRunner.fromArgs(TableRenderBenchmarks.class, args);
+        int rows = Integer.parseInt(BenchmarkRunner.option(args, "rows", "100000"));
+
+        UserDataGenerator generator = new UserDataGenerator(rows, 42);
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(generator.user(i));
+        }
+        UserTableModel tableModel = new UserTableModel();
+        tableModel.appendMembers(users);
+
+        JTable table = new JTable(tableModel);
+        table.setRowHeight(40);
+        table.setFont(new Font(null, Font.ITALIC, 17));
+        TableRowSorter<UserTableModel> sorter = new TableRowSorter<>(tableModel);
+        for (int column = 0; column < tableModel.getColumnCount(); column++) {
+            sorter.setComparator(column, String.CASE_INSENSITIVE_ORDER);
+        }
+        table.setRowSorter(sorter);
+        sorter.setSortKeys(List.of(new RowSorter.SortKey(0, SortOrder.ASCENDING)));
+        table.setRowSelectionInterval(3, 3);
+
+        String parameter = String.valueOf(rows);
+        TableColumnModel columns = table.getColumnModel();
+        TableCellRenderer[] cellRenderers = new TableCellRenderer[columns.getColumnCount()];
+        TableCellRenderer[] previousCellRenderers = new TableCellRenderer[columns.getColumnCount()];
+        TableCellRenderer previousCellRenderer = new PreviousRoleBasedRenderer();
+        for (int column = 0; column < cellRenderers.length; column++) {
+            // Installed like in UserManagement: the Password column has its own masking renderer.
+            cellRenderers[column] = new RoleBasedRenderer(tableModel, column == 2);
+            previousCellRenderers[column] = previousCellRenderer;
+        }
+        runner.run("render.cells", parameter, screen(table, cellRenderers));
+        runner.run("render.cells.previous", parameter, screen(table, previousCellRenderers));
+
+        TableCellRenderer[] headerRenderers = new TableCellRenderer[columns.getColumnCount()];
+        TableCellRenderer[] previousHeaderRenderers = new TableCellRenderer[columns.getColumnCount()];
+        for (int column = 0; column < headerRenderers.length; column++) {
+            headerRenderers[column] = new CustomHeaderRenderer("/icons/" + HEADER_ICONS[column]);
+            previousHeaderRenderers[column] = new PreviousHeaderRenderer("./src/icons/" + HEADER_ICONS[column]);
+        }
+        long scaledBefore = Metrics.timer("icons.scale").getHistogram().getCount();
+        runner.run("render.header", parameter, header(table, headerRenderers));
+        long scaled = Metrics.timer("icons.scale").getHistogram().getCount() - scaledBefore;
+        runner.run("render.header.previous", parameter, header(table, previousHeaderRenderers));
+        if (runner.measuresHere("render.header", parameter)) {
+            System.out.println("Images scaled while painting the header: " + scaled);
+        }
+        runner.printSummary();
+    }
+
+    /**
+     * Renders one screen of cells per call, one row further down each time,
+     * with the given renderer of each column.
+     */
+    private static BenchmarkRunner.Operation screen(JTable table, TableCellRenderer[] renderers) {
+        int[] firstRow = {0};
+        return () -> {
+            int rowCount = table.getRowCount();
+            int painted = 0;
+            for (int row = firstRow[0]; row < firstRow[0] + VISIBLE_ROWS; row++) {
+                for (int column = 0; column < table.getColumnCount(); column++) {
+                    Component component = table.prepareRenderer(renderers[column], row % rowCount, column);
+                    painted += component.getWidth();
+                }
+            }
+            firstRow[0] = (firstRow[0] + 1) % rowCount;
+            return painted;
+        };
+    }
+
+    /**
+     * Paints the header of every column into an image per call, the way the
+     * table header does.
+     */
+    private static BenchmarkRunner.Operation header(JTable table, TableCellRenderer[] renderers) {
+        TableColumnModel columns = table.getColumnModel();
+        BufferedImage canvas = new BufferedImage(200, 45, BufferedImage.TYPE_INT_ARGB);
+        return () -> {
+            int painted = 0;
+            Graphics2D g = canvas.createGraphics();
+            for (int column = 0; column < renderers.length; column++) {
+                Component component = renderers[column].getTableCellRendererComponent(table,
+                        columns.getColumn(column).getHeaderValue(), false, false, -1, column);
+                component.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
+                component.paint(g);
+                painted += component.getWidth();
+            }
+            g.dispose();
+            return painted;
+        };
+    }
+
+    /**
+     * The renderer of the user table before it was reworked into the
+     * {@link RoleBasedRenderer}, kept here for comparison.
+     */
+    private static class PreviousRoleBasedRenderer extends DefaultTableCellRenderer {
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                boolean hasFocus, int row, int column) {
+            JLabel label = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            label.setBorder(BorderFactory.createEmptyBorder(1, 5, 1, 5));
+
+            Object roleValue = table.getValueAt(row, 3);
+            String role = (roleValue != null) ? roleValue.toString() : "";
+
+            if ("Admin".equalsIgnoreCase(role)) {
+                label.setFont(new Font("Ärial", Font.BOLD, 16));
+                label.setBackground(Color.CYAN);
+                label.setForeground(Color.BLACK);
+            } else {
+                label.setBackground(isSelected ? table.getSelectionBackground() : Color.WHITE);
+                label.setForeground(isSelected ? table.getSelectionForeground() : Color.BLACK);
+            }
+
+            if (column == 2 && value != null) {
+                label.setText("**************");
+            }
+
+            return label;
+        }
+    }
+
+    /**
+     * The header renderer of the user table before it was reworked, kept
+     * here for comparison.
+     */
+    private static class PreviousHeaderRenderer extends DefaultTableCellRenderer {
+
+        private final String icon;
+
+        customImageResizer customSizeImage = new customImageResizer();
+
+        PreviousHeaderRenderer(String icon) {
+            this.icon = icon;
+            setHorizontalAlignment(SwingConstants.CENTER);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            JLabel label = new JLabel(value.toString(), customSizeImage.resizeIcon(new ImageIcon(icon), 20, 20), JLabel.CENTER);
+            label.setFont(new Font("Arial", Font.BOLD, 18));
+            label.setBorder(UIManager.getBorder("TableHeader.cellBorder"));
+            label.setHorizontalTextPosition(SwingConstants.RIGHT);
+            return label;
+        }
+    }
+}
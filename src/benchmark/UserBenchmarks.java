@@ -0,0 +1,153 @@
+package benchmark;
+
+import components.userManagementUtils.UserTableModel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.RowFilter;
+import javax.swing.table.TableRowSorter;
+import storage.BinaryUserRepository;
+import storage.FileUserRepository;
+import storage.JournaledUserRepository;
+import storage.User;
+import storage.UserFileConverter;
+import storage.UserRepository;
+
+/**
+ * Benchmarks of the load, search, login, register and save paths of the
+ * user management, run headlessly against member files generated by
+ * {@link UserDataGenerator}.
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * java -Djava.awt.headless=true benchmark.UserBenchmarks [--sizes=1000,100000,1000000]
+ *     [--warmup=5] [--iterations=5] [--time=1000] [--forks=1] [--filter=search]
+ * </pre>
+ * <ul>
+ * <li><b>load.*</b> - Reads a member file through a fresh repository (text,
+ * memory-mapped text or binary) and fills a {@link UserTableModel}, which is
+ * what {@code UserManagement.loadUsersFromFile()} does off and on the
+ * EDT.</li>
+ * <li><b>search.*</b> - Resolves a search text to matching rows, and applies
+ * the result as a {@link RowFilter} to a {@link TableRowSorter} like the
+ * search field does.</li>
+ * <li><b>login</b> - The email lookup of {@code UserAuthenticator.login()},
+ * with a plain text password check. The cost of the password hash is
+ * measured by {@link PasswordHashBenchmarks}.</li>
+ * <li><b>register</b> - The duplicate check and insert of
+ * {@code UserAuthenticator.registerUser()} and
+ * {@code UserEditor.addUser()}.</li>
+ * <li><b>save.*</b> - Updating a user like {@code UserEditor} does, with a
+ * full file rewrite and with the journal.</li>
+ * </ul>
+ * <p>
+ * The screens and {@code UserAuthenticator} read and write the fixed data
+ * and session files of the application, so the benchmarks call the same
+ * repository operations on copies in a temporary directory instead.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserBenchmarks {
+
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkRunner runner = BenchmarkRunner.fromArgs(UserBenchmarks.class, args);
+        File directory = Files.createTempDirectory("user-benchmarks").toFile();
+
+        try {
+            for (String size : BenchmarkRunner.option(args, "sizes", "1000,100000,1000000").split(",")) {
+                benchmark(runner, directory, Integer.parseInt(size.trim()));
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+        runner.printSummary();
+        System.exit(0); // Stops the journal sync threads
+    }
+
+    private static void benchmark(BenchmarkRunner runner, File directory, int size) throws IOException {
+        String users = String.valueOf(size);
+        if (!runner.isSelectedParameter(users)) {
+            return;
+        }
+        File csv = new File(directory, "members-" + size + ".txt");
+        File binary = new File(directory, "members-" + size + ".bin");
+        UserDataGenerator generator = new UserDataGenerator(size, SEED);
+        generator.generate(csv);
+        if (runner.isSelected("load.binary") && !UserFileConverter.csvToBinary(csv, binary)) {
+            throw new IOException("Unable to write " + binary);
+        }
+
+        UserTableModel tableModel = new UserTableModel();
+        runner.run("load.csv", users, () -> load(new FileUserRepository(csv.getPath(), false), tableModel));
+        runner.run("load.mapped", users, () -> load(new FileUserRepository(csv.getPath(), true), tableModel));
+        runner.run("load.binary", users, () -> load(new BinaryUserRepository(binary.getPath()), tableModel));
+
+        UserRepository members = new FileUserRepository(csv.getPath(), true);
+        load(members, tableModel);
+        TableRowSorter<UserTableModel> sorter = new TableRowSorter<>(tableModel);
+        String selective = generator.user(size / 2).email();
+        runner.run("search.selective", users, () -> tableModel.search(selective));
+        runner.run("search.broad", users, () -> tableModel.search("gmail"));
+        runner.run("search.short", users, () -> tableModel.search("r1"));
+        runner.run("search.rowFilter", users, () -> {
+            sorter.setRowFilter(tableModel.searchFilter("santos1"));
+            return sorter.getViewRowCount();
+        });
+
+        int[] next = {0};
+        runner.run("login", users, () -> {
+            User expected = generator.user(next[0]++ % size);
+            User user = members.findByEmail(expected.email());
+            return user != null && user.password().equals(expected.password());
+        });
+
+        File journaledCopy = copy(csv, new File(directory, "journaled-" + size + ".txt"));
+        JournaledUserRepository journaled = new JournaledUserRepository(journaledCopy.getPath(), JournaledUserRepository.DEFAULT_COMPACT_THRESHOLD, true);
+        journaled.size();
+        int[] registered = {0};
+        runner.run("register", users, () -> {
+            String email = "new" + registered[0]++ + "@example.com";
+            return !journaled.existsByEmail(email)
+                    && journaled.add(new User("new", email, "password", "member", "2025-01-01"));
+        });
+
+        File rewrittenCopy = copy(csv, new File(directory, "rewritten-" + size + ".txt"));
+        UserRepository rewritten = new FileUserRepository(rewrittenCopy.getPath(), true);
+        rewritten.size();
+        runner.run("save.rewrite", users, () -> rewritten.update(next[0]++ % size, updated(next[0])));
+        runner.run("save.journaled", users, () -> journaled.update(next[0]++ % size, updated(next[0])));
+        journaled.close();
+    }
+
+    private static Object load(UserRepository repository, UserTableModel tableModel) {
+        List<User> users = repository.findAll();
+        tableModel.clear();
+        tableModel.appendMembers(users);
+        return tableModel.getRowCount();
+    }
+
+    private static User updated(int i) {
+        return new User("updated" + i, "updated" + i + "@example.com", "password" + i, "member", "2025-02-01");
+    }
+
+    private static File copy(File source, File target) throws IOException {
+        Files.copy(source.toPath(), target.toPath());
+        return target;
+    }
+
+    private static void deleteRecursively(File directory) throws IOException {
+        try (var paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
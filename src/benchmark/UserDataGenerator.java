@@ -0,0 +1,220 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import storage.User;
+
+/**
+ * Generates synthetic member files in the format of
+ * <code>manageableUsers.txt</code>
+ * (<code>username,email,password,role,createdAt</code>), at any size.
+ * <p>
+ * Every user is derived from the seed and its row number only, so the same
+ * settings always produce the same file, and {@link #user(long)} returns
+ * any row without generating the rows before it. The rows are streamed to
+ * disk, so the size of a file is not limited by the heap.
+ * </p>
+ *
+ * <p>
+ * <b>Settings:</b></p>
+ * <ul>
+ * <li>The share of users with the admin role (the rest are members).</li>
+ * <li>The share of users that reuse the email of an earlier user, to test
+ * the duplicate checks.</li>
+ * <li>The range and distribution of the CreatedAt dates.</li>
+ * </ul>
+ *
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * java benchmark.UserDataGenerator --out=members.txt [--count=1000000] [--seed=42]
+ *     [--admins=0.05] [--duplicates=0.01] [--from=2020-01-01] [--to=2025-03-01]
+ *     [--dates=uniform|growth|recent]
+ * </pre>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserDataGenerator {
+
+    /**
+     * How the CreatedAt dates are spread over the date range.
+     */
+    public enum DateDistribution {
+        /**
+         * Every day is equally likely.
+         */
+        UNIFORM,
+        /**
+         * Signups grow linearly, so the last day gets the most signups.
+         */
+        GROWTH,
+        /**
+         * Most signups are recent, decaying exponentially into the past.
+         */
+        RECENT
+    }
+
+    private static final String[] FIRST_NAMES = {
+        "Russel", "Jayron", "Psalm", "Vhasty", "Maria", "Jose", "Angel", "Mark", "Kristine", "John",
+        "Paolo", "Andrea", "Miguel", "Bea", "Carlo", "Nicole", "Rafael", "Jasmine", "Luis", "Camille"
+    };
+    private static final String[] LAST_NAMES = {
+        "Lopez", "Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza", "Torres", "Flores", "Ramos",
+        "Aquino", "Castillo", "Villanueva", "Navarro", "Domingo", "Salazar"
+    };
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "rusbyte.net"};
+    private static final String[] SYMBOLS = {"@", "#", "$", "!"};
+
+    private final long count;
+    private final long seed;
+    private final double adminRatio;
+    private final double duplicateEmailRate;
+    private final LocalDate from;
+    private final long days;
+    private final DateDistribution dateDistribution;
+
+    /**
+     * Creates a generator.
+     *
+     * @param count The number of users to generate.
+     * @param seed The seed that determines every generated user.
+     * @param adminRatio The share of admin users, from 0 to 1.
+     * @param duplicateEmailRate The share of users that reuse the email of an
+     * earlier user, from 0 to 1.
+     * @param from The earliest CreatedAt date.
+     * @param to The latest CreatedAt date.
+     * @param dateDistribution How the dates are spread between {@code from}
+     * and {@code to}.
+     */
+    public UserDataGenerator(long count, long seed, double adminRatio, double duplicateEmailRate, LocalDate from, LocalDate to, DateDistribution dateDistribution) {
+        if (count < 0 || adminRatio < 0 || adminRatio > 1 || duplicateEmailRate < 0 || duplicateEmailRate > 1 || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid generator settings");
+        }
+        this.count = count;
+        this.seed = seed;
+        this.adminRatio = adminRatio;
+        this.duplicateEmailRate = duplicateEmailRate;
+        this.from = from;
+        this.days = ChronoUnit.DAYS.between(from, to) + 1;
+        this.dateDistribution = dateDistribution;
+    }
+
+    /**
+     * Creates a generator of members with unique emails, signed up uniformly
+     * during 2025.
+     *
+     * @param count The number of users to generate.
+     * @param seed The seed that determines every generated user.
+     */
+    public UserDataGenerator(long count, long seed) {
+        this(count, seed, 0, 0, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), DateDistribution.UNIFORM);
+    }
+
+    /**
+     * @return The number of users this generator writes.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the generated user of a row.
+     *
+     * @param row The row, from 0 to {@link #getCount()} - 1.
+     * @return The user of the row.
+     */
+    public User user(long row) {
+        SplittableRandom random = random(row);
+        String first = pick(random, FIRST_NAMES);
+        String last = pick(random, LAST_NAMES);
+        String email = email(first, last, row, pick(random, DOMAINS));
+
+        if (row > 0 && random.nextDouble() < duplicateEmailRate) {
+            email = email(random.nextLong(row));
+        }
+        String username = first + last.charAt(0) + random.nextInt(100);
+        String password = first + pick(random, SYMBOLS) + (100 + random.nextInt(900));
+        String role = random.nextDouble() < adminRatio ? "admin" : "member";
+        return new User(username, email, password, role, createdAt(random).toString());
+    }
+
+    /**
+     * Streams all users to a file, one line per user.
+     *
+     * @param file The file to write. An existing file is overwritten.
+     * @throws IOException If the file cannot be written.
+     */
+    public void generate(File file) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), 64 * 1024)) {
+            for (long row = 0; row < count; row++) {
+                writer.write(user(row).toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the own email of a row, before any duplication.
+     */
+    private String email(long row) {
+        SplittableRandom random = random(row);
+        String first = pick(random, FIRST_NAMES);
+        String last = pick(random, LAST_NAMES);
+        return email(first, last, row, pick(random, DOMAINS));
+    }
+
+    private static String email(String first, String last, long row, String domain) {
+        return (first + "." + last + row + "@" + domain).toLowerCase(Locale.ROOT);
+    }
+
+    private LocalDate createdAt(SplittableRandom random) {
+        double position = switch (dateDistribution) {
+            case UNIFORM -> random.nextDouble();
+            case GROWTH -> Math.sqrt(random.nextDouble());
+            case RECENT -> 1 - Math.min(1, -Math.log(1 - random.nextDouble()) / 5);
+        };
+        return from.plusDays(Math.min(days - 1, (long) (position * days)));
+    }
+
+    /**
+     * Creates the random source of a row, so rows do not depend on each
+     * other.
+     */
+    private SplittableRandom random(long row) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + row);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        String out = BenchmarkRunner.option(args, "out", null);
+        if (out == null) {
+            System.err.println("Usage: UserDataGenerator --out=<file> [--count=1000000] [--seed=42] [--admins=0.05] "
+                    + "[--duplicates=0.01] [--from=2020-01-01] [--to=2025-03-01] [--dates=uniform|growth|recent]");
+            System.exit(2);
+        }
+        UserDataGenerator generator = new UserDataGenerator(
+                Long.parseLong(BenchmarkRunner.option(args, "count", "1000000")),
+                Long.parseLong(BenchmarkRunner.option(args, "seed", "42")),
+                Double.parseDouble(BenchmarkRunner.option(args, "admins", "0.05")),
+                Double.parseDouble(BenchmarkRunner.option(args, "duplicates", "0.01")),
+                LocalDate.parse(BenchmarkRunner.option(args, "from", "2020-01-01")),
+                LocalDate.parse(BenchmarkRunner.option(args, "to", "2025-03-01")),
+                DateDistribution.valueOf(BenchmarkRunner.option(args, "dates", "uniform").toUpperCase(Locale.ROOT)));
+
+        long start = System.nanoTime();
+        generator.generate(new File(out));
+        System.out.printf("Generated %d users in %s (%d ms)%n", generator.getCount(), out, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,10 +1,19 @@
 package components;
 
 import auth.UserAuthenticator;
+import config.AppConfig;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import javax.swing.*;
+import metrics.Metrics;
+import util.Resources;
 
 /**
  * The main application window for the RusByte Net - User Management system.
@@ -14,7 +23,19 @@ import javax.swing.*;
  * <li>LoginScreen - Handles user authentication</li>
  * <li>RegisterScreen - Allows new admin users to create an account</li>
  * <li>UserManagement - Provides administrative functions</li>
+ * <li>DiagnosticsScreen - Hidden metrics page, toggled with Ctrl+Shift+D</li>
  * </ul>
+ * <p>
+ * The pages are registered as factories and each page is built the first
+ * time it is shown, so the window opens on its first page without building
+ * the others: a logged-in admin does not pay for the login and registration
+ * screens, and the login screen does not wait for the user table. While a
+ * page is shown, the page most likely to be opened next is built once the
+ * Event Dispatch Thread is idle, unless <code>ui.prewarm</code> is turned off
+ * in the {@link AppConfig}. The user management page is only built ahead of
+ * time for an authenticated session, so the login screen never builds it
+ * for someone who has not logged in.
+ * </p>
  *
  * @author Eric Russel M. Lopez
  * @version 23.0.1 (Java SE 23.0.1)
@@ -22,39 +43,62 @@ import javax.swing.*;
  */
 public final class App extends JFrame {
 
+    private static final int PREWARM_DELAY_MILLIS = 300;
+
     final CardLayout cardLayout;
     final JPanel mainPanel;
 
-    final ImageIcon appIcon = new ImageIcon(getClass().getResource("/assets/rusbytefaviconmain.png"));
+    private final Map<String, Supplier<JComponent>> pageFactories = new HashMap<>();
+    private final Map<String, String> nextLikelyPages = new HashMap<>();
+    private final Map<String, JComponent> pages = new HashMap<>();
+    private final boolean prewarmPages = AppConfig.current().prewarmPages();
+    private final Timer prewarmTimer = new Timer(PREWARM_DELAY_MILLIS, e -> prewarm());
 
     UserAuthenticator userAuth = new UserAuthenticator();
 
+    private String currentPage = "LOGIN";
+    private String currentTitle = "RusByte Net - User Management";
+    private String previousPage = currentPage;
+    private String previousTitle = currentTitle;
+
     /**
      * Constructs the main application window and initializes UI components
      * dynamically.
      * <p>
      * The UI includes login, registration, and user management screens. Based
      * on the authentication status, the appropriate page is displayed upon
-     * startup.
+     * startup, and only that page is built.
      */
     public App() {
         setTitle("RusByte Net - User Management");
         windowSizeSetDefault();
         setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
-        setIconImage(appIcon.getImage());
+        setIconImage(Resources.image("/assets/rusbytefaviconmain.png"));
         setLocationRelativeTo(null);
 
         cardLayout = new CardLayout();
         mainPanel = new JPanel(cardLayout);
 
-        mainPanel.add(new LoginScreen(this), "LOGIN");
-        mainPanel.add(new RegisterScreen(this), "REGISTER");
-        mainPanel.add(new UserManagement(this), "USER MANAGEMENT");
+        registerPage("LOGIN", () -> new LoginScreen(this), "USER MANAGEMENT");
+        registerPage("REGISTER", () -> new RegisterScreen(this), "LOGIN");
+        registerPage("USER MANAGEMENT", () -> new UserManagement(this), "LOGIN");
+        registerPage("DIAGNOSTICS", () -> new DiagnosticsScreen(this), null);
+        prewarmTimer.setRepeats(false);
+
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(
+                KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "toggleDiagnostics");
+        getRootPane().getActionMap().put("toggleDiagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleDiagnostics();
+            }
+        });
 
         if (userAuth.isAuthenticated()) {
             showPage("USER MANAGEMENT", "RusByte Net - User Management");
         } else {
             userAuth.logout();
+            showPage("LOGIN", "RusByte Net - User Management");
         }
 
         addWindowListener(new WindowAdapter() {
@@ -70,6 +114,57 @@ public final class App extends JFrame {
         setVisible(true);
     }
 
+    /**
+     * Registers a page of the window. The page is built by its factory the
+     * first time it is shown or pre-warmed.
+     *
+     * @param pageName The name of the page.
+     * @param factory Builds the page. Called once, on the Event Dispatch
+     * Thread.
+     * @param nextLikelyPage The page most likely to be opened from this page,
+     * built ahead of time, or {@code null} for none.
+     */
+    private void registerPage(String pageName, Supplier<JComponent> factory, String nextLikelyPage) {
+        pageFactories.put(pageName, factory);
+        if (nextLikelyPage != null) {
+            nextLikelyPages.put(pageName, nextLikelyPage);
+        }
+    }
+
+    /**
+     * Returns a page, building it and adding it to the card layout the first
+     * time it is asked for.
+     */
+    private JComponent page(String pageName) {
+        JComponent page = pages.get(pageName);
+        if (page == null) {
+            long start = Metrics.timer("app.page.build").start();
+            page = pageFactories.get(pageName).get();
+            Metrics.timer("app.page.build").stop(start);
+            pages.put(pageName, page);
+            mainPanel.add(page, pageName);
+        }
+        return page;
+    }
+
+    /**
+     * Builds the page most likely to be opened from the current page, if it
+     * was not built yet. Runs on the Event Dispatch Thread after the current
+     * page was shown. The user management page is skipped unless a session
+     * is authenticated.
+     */
+    private void prewarm() {
+        String nextPage = nextLikelyPages.get(currentPage);
+        if (nextPage == null || pages.containsKey(nextPage)) {
+            return;
+        }
+        if ("USER MANAGEMENT".equals(nextPage) && !userAuth.isAuthenticated()) {
+            return;
+        }
+        page(nextPage);
+        Metrics.counter("app.page.prewarmed").increment();
+    }
+
     /**
      * This method sets the default window size and center it on the screen.
      */
@@ -82,25 +177,53 @@ public final class App extends JFrame {
      * This method routes the specified page within the application and updates
      * the window title accordingly.
      * <p>
-     * If the "USER MANAGEMENT" page is displayed, the window is maximized.
-     * Otherwise, the window size is set to its default state.</p>
+     * If the "USER MANAGEMENT" page is displayed, the window is maximized. The
+     * "DIAGNOSTICS" page keeps the current window size. Otherwise, the window
+     * size is set to its default state.</p>
+     * <p>
+     * The page is built if it is shown for the first time.</p>
      *
      * @param pageName The name of the page to be displayed.
      * @param windowTitle The title to be set for the window.
      */
     public void showPage(String pageName, String windowTitle) {
+        if ("DIAGNOSTICS".equals(pageName) && !"DIAGNOSTICS".equals(currentPage)) {
+            previousPage = currentPage;
+            previousTitle = currentTitle;
+        }
+        JComponent page = page(pageName);
         cardLayout.show(mainPanel, pageName);
         setTitle(windowTitle);
+        currentPage = pageName;
+        currentTitle = windowTitle;
+        if (prewarmPages) {
+            prewarmTimer.restart();
+        }
 
         if ("USER MANAGEMENT".equals(pageName)) {
-            Component c = mainPanel.getComponent(2); // Gets the component to check if it is current on render to applies the live data
-            if (c instanceof UserManagement userManagement) {
+            if (page instanceof UserManagement userManagement) {
                 userManagement.reloadUserProfile();
                 UserManagement.loadUsersFromFile();
                 setExtendedState(JFrame.MAXIMIZED_BOTH); //Full screen view
             }
-        } else {
+        } else if (!"DIAGNOSTICS".equals(pageName)) {
             windowSizeSetDefault();
         }
     }
+
+    /**
+     * This method opens the hidden diagnostics page on top of the current
+     * page, or goes back to the page it was opened from. Going back does not
+     * reload the page or resize the window.
+     */
+    public void toggleDiagnostics() {
+        if ("DIAGNOSTICS".equals(currentPage)) {
+            cardLayout.show(mainPanel, previousPage);
+            setTitle(previousTitle);
+            currentPage = previousPage;
+            currentTitle = previousTitle;
+        } else {
+            showPage("DIAGNOSTICS", "RusByte Net - Diagnostics");
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package components;
+
+import config.AppConfig;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.io.File;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import metrics.Metrics;
+
+/**
+ * Copyright (c) 2025 Eric Russel M. Lopez
+ *
+ * This class represents the hidden Diagnostics Screen Component UI. It is
+ * opened and closed with Ctrl+Shift+D and shows the {@link Metrics} report,
+ * refreshed every second while the screen is visible.
+ *
+ * @component DiagnosticsScreen
+ */
+public class DiagnosticsScreen extends JPanel {
+
+    private static final File DUMP_DIRECTORY = new File(AppConfig.current().diagnosticsDirectory());
+
+    private final JTextArea reportArea = new JTextArea();
+    private final Timer refreshTimer = new Timer(1000, e -> refresh());
+
+    /**
+     * This is the constructor of the DiagnosticsScreen component. Initializes
+     * the user interface.
+     *
+     * @param router The application router used for navigating between screens.
+     */
+    public DiagnosticsScreen(App router) {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(15, 15, 15, 15));
+
+        JLabel title = new JLabel("Diagnostics");
+        title.setFont(new Font("Arial", Font.BOLD, 20));
+
+        reportArea.setEditable(false);
+        reportArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+
+        JButton refreshButton = new JButton("Refresh");
+        JButton resetButton = new JButton("Reset");
+        JButton dumpButton = new JButton("Dump to file");
+        JButton backButton = new JButton("Back");
+        for (JButton button : new JButton[]{refreshButton, resetButton, dumpButton, backButton}) {
+            button.setFocusPainted(false);
+        }
+        dumpButton.setBackground(Color.cyan);
+
+        refreshButton.addActionListener(e -> refresh());
+        resetButton.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        dumpButton.addActionListener(e -> {
+            File dump = Metrics.dump(DUMP_DIRECTORY);
+            if (dump != null) {
+                JOptionPane.showMessageDialog(this, "Metrics saved to " + dump.getPath(), "Dump saved", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                Toolkit.getDefaultToolkit().beep();
+                JOptionPane.showMessageDialog(this, "Unable to save the metrics.", "Operation failed", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        backButton.addActionListener(e -> router.toggleDiagnostics());
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        buttons.add(refreshButton);
+        buttons.add(resetButton);
+        buttons.add(dumpButton);
+        buttons.add(backButton);
+
+        add(title, BorderLayout.NORTH);
+        add(new JScrollPane(reportArea), BorderLayout.CENTER);
+        add(buttons, BorderLayout.SOUTH);
+
+        // Only refresh while the screen is shown by the CardLayout.
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                refresh();
+                refreshTimer.start();
+            }
+
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                refreshTimer.stop();
+            }
+        });
+    }
+
+    private void refresh() {
+        int caret = Math.min(reportArea.getCaretPosition(), reportArea.getDocument().getLength());
+        reportArea.setText(Metrics.report());
+        reportArea.setCaretPosition(Math.min(caret, reportArea.getDocument().getLength()));
+    }
+}
@@ -1,6 +1,7 @@
 package components;
 
 import auth.UserAuthenticator;
+import config.AppConfig;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -16,8 +17,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.swing.*;
 import javax.swing.border.*;
+import util.IconCache;
 import util.customBorder;
-import util.customImageResizer;
 
 /**
  * Copyright (c) 2025 Eric Russel M. Lopez
@@ -28,8 +29,6 @@ import util.customImageResizer;
  */
 public class LoginScreen extends JPanel implements customBorder {
 
-    customImageResizer customImageSize = new customImageResizer();
-
     private final App router;
     private JPanel panel = new JPanel(new GridLayout(8, 1, 10, 10));
 
@@ -39,11 +38,11 @@ public class LoginScreen extends JPanel implements customBorder {
     private int counterToReAttempt = 30;
     private int timePenalty = (counterToReAttempt * attemptsPenalty);
     private static int loginCounter = 3;
-    private static final String FILE_PATH_TIMER = "./src/components/LoginUtils/storedTimePenalty.txt";
+    private static final String FILE_PATH_TIMER = AppConfig.current().penaltyFile();
 
     private static final Pattern VALID_EMAIL_ADDRESS_REGEX = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$", Pattern.CASE_INSENSITIVE);
 
-    private ImageIcon titleIcon = new ImageIcon("./src/icons/user-solid.png");
+    private final ImageIcon titleIcon = IconCache.icon("/icons/user-solid.png", 30, 30);
 
     private JTextField emailField = new JTextField();
     private JPasswordField passwordField = new JPasswordField();
@@ -57,8 +56,8 @@ public class LoginScreen extends JPanel implements customBorder {
     private JButton loginButton = new JButton("Login");
     private JButton goToRegister = new JButton("Register");
 
-    private ImageIcon showPasswordIcon = new ImageIcon("./src/icons/eye-regular.png");
-    private ImageIcon hidePasswordIcon = new ImageIcon("./src/icons/eye-slash-regular.png");
+    private final ImageIcon showPasswordIcon = IconCache.icon("/icons/eye-regular.png", 16, 16);
+    private final ImageIcon hidePasswordIcon = IconCache.icon("/icons/eye-slash-regular.png", 16, 16);
 
     private Border loginButtonsRounded = new LineBorder(Color.gray, 1, true);
 
@@ -79,7 +78,6 @@ public class LoginScreen extends JPanel implements customBorder {
         errorMessageLabel.setFont(new Font("", Font.ITALIC, 18));
         errorMessageLabel.setForeground(Color.RED);
 
-        titleIcon = customImageSize.resizeIcon(titleIcon, 30, 30);
         JLabel title = new JLabel(" Admin login", titleIcon, JLabel.CENTER);
         title.setFont(new Font("Arial", Font.BOLD, 30));
 
@@ -102,9 +100,6 @@ public class LoginScreen extends JPanel implements customBorder {
         goToRegister.setFont(new Font(null, Font.BOLD, 13));
         goToRegister.setToolTipText("Create an account");
 
-        showPasswordIcon = customImageSize.resizeIcon(showPasswordIcon, 16, 16);
-        hidePasswordIcon = customImageSize.resizeIcon(hidePasswordIcon, 16, 16);
-
         ToolTipManager.sharedInstance().setInitialDelay(200);
 
         JButton toggleShowHidePasswordButton = new JButton(hidePasswordIcon);
@@ -148,9 +143,7 @@ public class LoginScreen extends JPanel implements customBorder {
                 return;
             }
 
-            boolean isAuthenticated = new UserAuthenticator().login("", email.toLowerCase(), password);
-
-            runLoginTask(isAuthenticated, loginButton, passwordField);
+            runLoginTask(email.toLowerCase(), password, loginButton, passwordField);
         });
 
         goToRegister.addActionListener(e -> {
@@ -303,19 +296,22 @@ public class LoginScreen extends JPanel implements customBorder {
 
     /**
      * Executes the login process asynchronously using SwingWorker. It disables
-     * input fields during the login attempt, simulates a delay, and handles
-     * authentication success or failure.
+     * input fields during the login attempt, verifies the credentials off the
+     * EDT (padded to a delay of 2 seconds), and handles authentication success
+     * or failure.
      *
-     * @param isAuthenticated {@code true} if the user is successfully
-     * authenticated, {@code false} otherwise.
+     * @param email The email entered by the user.
+     * @param password The password entered by the user.
      * @param loginButton The button that triggers the login process.
      * @param passwordField The password input field.
      *
      * This method ensures UI modifications are performed on the Event Dispatch
      * Thread (EDT) using {@link SwingUtilities#invokeLater(Runnable)}.
      */
-    private void runLoginTask(boolean isAuthenticated, JButton loginButton, JPasswordField passwordField) {
+    private void runLoginTask(String email, String password, JButton loginButton, JPasswordField passwordField) {
         new SwingWorker<Void, Void>() {
+            private boolean isAuthenticated;
+
             @Override
             protected Void doInBackground() throws Exception {
                 SwingUtilities.invokeLater(() -> {
@@ -328,7 +324,9 @@ public class LoginScreen extends JPanel implements customBorder {
                     loginButton.setText("Logging in...");
                 });
 
-                Thread.sleep(2000);
+                long start = System.currentTimeMillis();
+                isAuthenticated = new UserAuthenticator().login("", email, password);
+                Thread.sleep(Math.max(0, 2000 - (System.currentTimeMillis() - start)));
                 return null;
             }
 
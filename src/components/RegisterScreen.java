@@ -7,8 +7,8 @@ import java.awt.event.KeyEvent;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.swing.*;
+import util.IconCache;
 import util.customBorder;
-import util.customImageResizer;
 
 /**
  * Copyright (c) 2025 Eric Russel M. Lopez
@@ -19,13 +19,11 @@ import util.customImageResizer;
  */
 public class RegisterScreen extends JPanel implements customBorder {
 
-    customImageResizer customImageSize = new customImageResizer();
-
     private final App router;
 
     private JPanel panel = new JPanel(new GridLayout(8, 1, 10, 10));
 
-    private ImageIcon titleIcon = new ImageIcon("./src/icons/user-solid.png");
+    private final ImageIcon titleIcon = IconCache.icon("/icons/user-solid.png", 30, 30);
 
     private static final Pattern VALID_EMAIL_ADDRESS_REGEX
             = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$", Pattern.CASE_INSENSITIVE);
@@ -69,7 +67,6 @@ public class RegisterScreen extends JPanel implements customBorder {
         setLayout(new GridBagLayout());
 
         panel.setPreferredSize(new Dimension(400, 470));
-        titleIcon = customImageSize.resizeIcon(titleIcon, 30, 30);
         JLabel title = new JLabel(" Register as admin", titleIcon, JLabel.CENTER
         );
         title.setFont(new Font("Arial", Font.BOLD, 20));
@@ -102,7 +99,7 @@ public class RegisterScreen extends JPanel implements customBorder {
         usernamePanel.add(usernameField, BorderLayout.CENTER);
         emailPanel.add(emailField, BorderLayout.CENTER);
 
-        JButton toolTipPasswordReq = new JButton(customImageSize.resizeIcon(new ImageIcon("./src/icons/circle-question-solid.png"), 15, 15));
+        JButton toolTipPasswordReq = new JButton(IconCache.icon("/icons/circle-question-solid.png", 15, 15));
         toolTipPasswordReq.setBorder(null);
         toolTipPasswordReq.setContentAreaFilled(false);
         toolTipPasswordReq.setFocusPainted(false);
@@ -136,9 +133,7 @@ public class RegisterScreen extends JPanel implements customBorder {
                 return;
             }
 
-            boolean isRegisterAuthenticated = new UserAuthenticator().registerUser(username, email, password);
-
-            runRegisterTask(isRegisterAuthenticated, registerButton, passwordField);
+            runRegisterTask(username, email, password, registerButton, passwordField);
         });
 
         backToLogin.addActionListener(e -> resetRegisterForm());
@@ -310,15 +305,17 @@ public class RegisterScreen extends JPanel implements customBorder {
      * {@link SwingWorker}.
      * <p>
      * This method performs UI updates to display a loading overlay while
-     * delaying the register proccess for 2 seconds to simulate a processing
-     * effect.
+     * the admin is registered off the EDT, padded to a delay of 2 seconds to
+     * simulate a processing effect.
      * </p>
      *
      * The method ensures UI modifications are performed on the Event Dispatch
      * Thread (EDT) using {@link SwingUtilities#invokeLater(Runnable)}.
      */
-    private void runRegisterTask(boolean registerIsAuthenticated, JButton registerButton, JPasswordField passwordField) {
+    private void runRegisterTask(String username, String email, String password, JButton registerButton, JPasswordField passwordField) {
         new SwingWorker<Void, Void>() {
+            private boolean registerIsAuthenticated;
+
             @Override
             protected Void doInBackground() throws Exception {
                 SwingUtilities.invokeLater(() -> {
@@ -333,7 +330,9 @@ public class RegisterScreen extends JPanel implements customBorder {
                     registerButton.setText("Creating your account...");
                 });
 
-                Thread.sleep(2000);
+                long start = System.currentTimeMillis();
+                registerIsAuthenticated = new UserAuthenticator().registerUser(username, email, password);
+                Thread.sleep(Math.max(0, 2000 - (System.currentTimeMillis() - start)));
                 return null;
             }
 
@@ -1,28 +1,36 @@
 package components;
 
 import auth.UserAuthenticator;
+import components.userManagementUtils.RoleBasedRenderer;
 import components.userManagementUtils.UserEditor;
+import components.userManagementUtils.UserSearchScheduler;
+import components.userManagementUtils.UserTableExporter;
+import components.userManagementUtils.UserTableLoader;
+import components.userManagementUtils.UserStatistics;
+import components.userManagementUtils.UserTableModel;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.ArrayList;
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.MatteBorder;
-import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.JTableHeader;
-import javax.swing.table.TableModel;
 import javax.swing.table.TableRowSorter;
+import metrics.Metrics;
+import service.MemberListener;
+import service.UserService;
+import storage.Repositories;
+import storage.User;
 import util.CustomHeaderRenderer;
+import util.IconCache;
+import util.Resources;
 import util.customBorder;
-import util.customImageResizer;
 
 /**
  * Copyright (c) 2025 Eric Russel M. Lopez
@@ -38,20 +46,26 @@ public final class UserManagement extends JPanel implements customBorder {
     private final GridBagConstraints gbc = new GridBagConstraints();
     private JLabel logoLabel, loadingCenter, usernameSessionLabel, emailSessionLabel, roleSessionLabel;
     private JPanel navbar, leftPanel, rightPanel, contentPanel, overlayPanel, leftContentPanel, rightContentPanel, leftContentPanelChild1, leftContentPanelChild2;
-    private JButton menuButton, addUserBtn;
+    private JButton menuButton, addUserBtn, importUsersBtn, exportUsersBtn;
     private JPopupMenu dropdownMenu;
     private final JMenuItem logoutItem;
     private final ImageIcon logoIcon, menuIcon;
     private JPanel topTablePanel;
     private static JLabel totalUsersLabelDisplay, totalUserAdmins, totalUserMembers;
-    private static DefaultTableModel tableModel;
+    private static UserTableModel tableModel;
     private static JTable userTable;
+    private static JProgressBar loadingProgressBar;
+    private static JButton cancelLoadingBtn;
+    private static UserTableLoader userTableLoader;
+    private static boolean loadingUsers;
+    private static boolean usersLoaded;
     private JTextField searchField;
-    static TableRowSorter<DefaultTableModel> sorter;
+    private static UserSearchScheduler searchScheduler;
+    private static RowFilter<UserTableModel, Integer> searchFilter;
+    static TableRowSorter<UserTableModel> sorter;
 
     UserAuthenticator userAuth = new UserAuthenticator();
     UserEditor userManagementUserEditor = new UserEditor();
-    customImageResizer customImageSize = new customImageResizer();
 
     /**
      * This is the constructor of the UserManagement component. Initializes the
@@ -63,14 +77,10 @@ public final class UserManagement extends JPanel implements customBorder {
 
         this.router = router;
 
-        if (!userAuth.isAuthenticated()) {
-            userAuth.logout();
-        }
-
         setLayout(new BorderLayout());
 
-        logoIcon = customImageSize.resizeIcon(new ImageIcon("./src/assets/rusbytefaviconmain.png"), 35, 35);
-        menuIcon = customImageSize.resizeIcon(new ImageIcon("./src/icons/bars-solid.png"), 20, 20);
+        logoIcon = IconCache.icon("/assets/rusbytefaviconmain.png", 35, 35);
+        menuIcon = IconCache.icon("/icons/bars-solid.png", 20, 20);
 
         /* Navigation bar */
         navbar = new JPanel(new BorderLayout());
@@ -102,7 +112,7 @@ public final class UserManagement extends JPanel implements customBorder {
         dropdownMenu = new JPopupMenu("Menu");
         dropdownMenu.setPreferredSize(new Dimension(115, 42));
 
-        logoutItem = new JMenuItem(" Log Out", customImageSize.resizeIcon(new ImageIcon("./src/icons/right-from-bracket-solid.png"), 20, 20));
+        logoutItem = new JMenuItem(" Log Out", IconCache.icon("/icons/right-from-bracket-solid.png", 20, 20));
         logoutItem.addActionListener(e -> {
             int choice = JOptionPane.showConfirmDialog(this, "Are you sure you want to logout?", "↪  Logout", JOptionPane.YES_NO_OPTION);
             if (choice == JOptionPane.YES_OPTION) {
@@ -136,15 +146,15 @@ public final class UserManagement extends JPanel implements customBorder {
         leftContentPanelChild1.setPreferredSize(new Dimension(260, 150));
         leftContentPanelChild1.setMaximumSize(new Dimension(260, 150)); // Force full width
 
-        usernameSessionLabel = new JLabel("Username", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-solid.png"), 25, 25), JLabel.LEFT);
+        usernameSessionLabel = new JLabel("Username", IconCache.icon("/icons/user-solid.png", 25, 25), JLabel.LEFT);
         usernameSessionLabel.setFont(new Font("Arial", Font.BOLD, 20));
         usernameSessionLabel.setBorder(new EmptyBorder(25, 30, 5, 10));
 
-        emailSessionLabel = new JLabel("Email", customImageSize.resizeIcon(new ImageIcon("./src/icons/envelope-solid.png"), 15, 15), JLabel.LEFT);
+        emailSessionLabel = new JLabel("Email", IconCache.icon("/icons/envelope-solid.png", 15, 15), JLabel.LEFT);
         emailSessionLabel.setFont(new Font("Arial", Font.ITALIC, 15));
         emailSessionLabel.setBorder(new EmptyBorder(10, 30, 5, 10));
 
-        roleSessionLabel = new JLabel(" Admin", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-tie-solid.png"), 15, 15), JLabel.LEFT);
+        roleSessionLabel = new JLabel(" Admin", IconCache.icon("/icons/user-tie-solid.png", 15, 15), JLabel.LEFT);
         roleSessionLabel.setFont(new Font("Arial", Font.BOLD, 15));
         roleSessionLabel.setForeground(new Color(0, 145, 145));
         roleSessionLabel.setBorder(new EmptyBorder(10, 30, 5, 10));
@@ -164,13 +174,13 @@ public final class UserManagement extends JPanel implements customBorder {
         leftContentPanelChild2.setPreferredSize(new Dimension(260, 150));
         leftContentPanelChild2.setMaximumSize(new Dimension(260, 150));
 
-        totalUsersLabelDisplay = new JLabel("Total Users", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-solid.png"), 20, 20), JLabel.LEFT);
+        totalUsersLabelDisplay = new JLabel("Total Users", IconCache.icon("/icons/user-solid.png", 20, 20), JLabel.LEFT);
         totalUsersLabelDisplay.setFont(new Font("Arial", Font.BOLD, 20));
         totalUsersLabelDisplay.setBorder(new EmptyBorder(15, 20, 5, 10));
-        totalUserMembers = new JLabel("Members", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-solid.png"), 20, 20), JLabel.LEFT);
+        totalUserMembers = new JLabel("Members", IconCache.icon("/icons/user-solid.png", 20, 20), JLabel.LEFT);
         totalUserMembers.setFont(new Font("Arial", Font.ITALIC, 16));
         totalUserMembers.setBorder(new EmptyBorder(15, 20, 5, 10));
-        totalUserAdmins = new JLabel("Admins", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-tie-solid.png"), 20, 20), JLabel.LEFT);
+        totalUserAdmins = new JLabel("Admins", IconCache.icon("/icons/user-tie-solid.png", 20, 20), JLabel.LEFT);
         totalUserAdmins.setFont(new Font("Arial", Font.BOLD, 15));
         totalUserAdmins.setForeground(new Color(0, 145, 145));
         totalUserAdmins.setBorder(new EmptyBorder(15, 20, 5, 10));
@@ -186,19 +196,16 @@ public final class UserManagement extends JPanel implements customBorder {
         leftContentPanel.add(leftContentPanelChild1);
         leftContentPanel.add(leftContentPanelChild2);
 
+        tableModel = new UserTableModel();
+        tableModel.getStatistics().addChangeListener(e -> showUserStatistics(tableModel.getStatistics()));
+        UserService.shared().addMemberListener(new TableMemberListener());
+
         rightContentPanel = new JPanel(new BorderLayout());
 
         topTablePanel = new JPanel(new BorderLayout());
         topTablePanel.setBorder(BorderFactory.createEmptyBorder(0, 2, 0, 0));
 
         /* Table Area */
-        String[] columnNames = {"Username", "Email", "Password", "Role", "CreatedAt"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
 
         userTable = new JTable(tableModel) {
             @Override
@@ -217,14 +224,17 @@ public final class UserManagement extends JPanel implements customBorder {
             }
         };
 
+        userTable.setDefaultRenderer(Object.class, new RoleBasedRenderer(tableModel));
+        userTable.getColumnModel().getColumn(2).setCellRenderer(new RoleBasedRenderer(tableModel, true));
+
         JTableHeader tableHeader = userTable.getTableHeader();
         tableHeader.setPreferredSize(new Dimension(100, 45));
         tableHeader.setEnabled(false);
-        tableHeader.getColumnModel().getColumn(0).setHeaderRenderer(new CustomHeaderRenderer("./src/icons/user-solid.png"));
-        tableHeader.getColumnModel().getColumn(1).setHeaderRenderer(new CustomHeaderRenderer("./src/icons/envelope-solid.png"));
-        tableHeader.getColumnModel().getColumn(2).setHeaderRenderer(new CustomHeaderRenderer("./src/icons/key-solid.png"));
-        tableHeader.getColumnModel().getColumn(3).setHeaderRenderer(new CustomHeaderRenderer("./src/icons/user-tie-solid.png"));
-        tableHeader.getColumnModel().getColumn(4).setHeaderRenderer(new CustomHeaderRenderer("./src/icons/calendar-solid.png"));
+        tableHeader.getColumnModel().getColumn(0).setHeaderRenderer(new CustomHeaderRenderer("/icons/user-solid.png"));
+        tableHeader.getColumnModel().getColumn(1).setHeaderRenderer(new CustomHeaderRenderer("/icons/envelope-solid.png"));
+        tableHeader.getColumnModel().getColumn(2).setHeaderRenderer(new CustomHeaderRenderer("/icons/key-solid.png"));
+        tableHeader.getColumnModel().getColumn(3).setHeaderRenderer(new CustomHeaderRenderer("/icons/user-tie-solid.png"));
+        tableHeader.getColumnModel().getColumn(4).setHeaderRenderer(new CustomHeaderRenderer("/icons/calendar-solid.png"));
 
         userTable.getTableHeader().setReorderingAllowed(false);
         userTable.setRowHeight(40);
@@ -236,11 +246,13 @@ public final class UserManagement extends JPanel implements customBorder {
         popupMenu.setPreferredSize(new Dimension(155, 75));
 
         addUserBtn.addActionListener(e -> userManagementUserEditor.addUser(userTable, tableModel, userAuth));
-        JMenuItem editItem = new JMenuItem(" Edit this user", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-pen-solid.png"), 15, 15));
+        importUsersBtn.addActionListener(e -> userManagementUserEditor.importUsers(userAuth));
+        exportUsersBtn.addActionListener(e -> exportUsers());
+        JMenuItem editItem = new JMenuItem(" Edit this user", IconCache.icon("/icons/user-pen-solid.png", 15, 15));
 
         editItem.addActionListener(e -> userManagementUserEditor.editUser(userTable, tableModel, userAuth));
 
-        JMenuItem deleteItem = new JMenuItem(" Delete this user", customImageSize.resizeIcon(new ImageIcon("./src/icons/trash-solid.png"), 15, 15));
+        JMenuItem deleteItem = new JMenuItem(" Delete this user", IconCache.icon("/icons/trash-solid.png", 15, 15));
 
         deleteItem.addActionListener(e -> userManagementUserEditor.deleteUser(userTable, tableModel, userAuth));
         popupMenu.add(editItem);
@@ -284,199 +296,323 @@ public final class UserManagement extends JPanel implements customBorder {
     /**
      * This method filters the user search entries dynamically. The filtering
      * applies to specific columns (Username, Email, Role, and createdAt) but
-     * excludes sensitive data like passwords.
+     * excludes sensitive data like passwords. The keystrokes are debounced by
+     * a {@link UserSearchScheduler}, which resolves the matching rows with the
+     * trigram index of the table model
+     * ({@link UserTableModel#searchFilter(String)}) on a background thread and
+     * hands only the latest result to
+     * {@link #applySearchResult(String, RowFilter)}.
      */
     public void usersTableSearchFilter() {
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
-        addUserBtn = new JButton("Add user", customImageSize.resizeIcon(new ImageIcon("./src/icons/user-plus-solid.png"), 15, 15));
+        addUserBtn = new JButton("Add user", IconCache.icon("/icons/user-plus-solid.png", 15, 15));
         addUserBtn.setBackground(new Color(0, 235, 235));
         addUserBtn.setForeground(Color.BLACK);
         addUserBtn.setToolTipText("Add new user");
         addUserBtn.setPreferredSize(new Dimension(120, 35));
         addUserBtn.setFocusPainted(false);
         addUserBtn.setFont(new Font("Arial", Font.BOLD, 13));
+        importUsersBtn = new JButton("Import");
+        importUsersBtn.setToolTipText("Import users from a CSV file (username,email,password)");
+        importUsersBtn.setPreferredSize(new Dimension(90, 35));
+        importUsersBtn.setFocusPainted(false);
+        importUsersBtn.setFont(new Font("Arial", Font.BOLD, 13));
+        exportUsersBtn = new JButton("Export");
+        exportUsersBtn.setToolTipText("Export the shown users to a CSV or JSON Lines file");
+        exportUsersBtn.setPreferredSize(new Dimension(90, 35));
+        exportUsersBtn.setFocusPainted(false);
+        exportUsersBtn.setFont(new Font("Arial", Font.BOLD, 13));
         searchField = new JTextField(25);
         searchField.setToolTipText("Search for user");
         searchField.setOpaque(false);
         searchField.setPreferredSize(new Dimension(100, 45));
         setInputBorderColor(searchField, "🔎 Search", Color.BLACK);
         searchField.setFont(new Font("Arial", Font.PLAIN, 15));
+        searchScheduler = new UserSearchScheduler(tableModel, UserSearchScheduler.DEFAULT_DEBOUNCE_MILLIS, this::applySearchResult);
         searchField.addKeyListener(new KeyAdapter() {
             @Override
             public void keyReleased(KeyEvent e) {
-                String searchText = searchField.getText().trim().toLowerCase();
-                if (searchText.isEmpty()) {
-                    setInputBorderColor(searchField, "🔎 Search", Color.BLACK);
-                    sorter.setRowFilter(null);
-                } else {
-                    RowFilter<TableModel, Integer> filter = new RowFilter<TableModel, Integer>() {
-                        @Override
-                        public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
-                            // The columns to search (Username, Email, Role, CreatedAt) - not Password
-                            for (int col : new int[]{0, 1, 3, 4}) {
-                                String value = entry.getStringValue(col).trim().toLowerCase();
-                                if (value.contains(searchText)) {
-                                    return true; // Keep the row
-                                }
-                            }
-                            return false;
-                        }
-                    };
-                    sorter.setRowFilter(filter);
-                    if (userTable.getRowCount() > 0) {
-                        setInputBorderColor(searchField, "🔎 Search", Color.BLACK);
-                    } else {
-                        setInputBorderColor(searchField, "❌ No user found", Color.RED);
-                    }
-                }
+                searchScheduler.schedule(searchField.getText().trim().toLowerCase());
+            }
+        });
+
+        loadingProgressBar = new JProgressBar(0, 100);
+        loadingProgressBar.setStringPainted(true);
+        loadingProgressBar.setString("Loading users...");
+        loadingProgressBar.setPreferredSize(new Dimension(180, 20));
+        loadingProgressBar.setVisible(false);
+
+        cancelLoadingBtn = new JButton("Cancel");
+        cancelLoadingBtn.setToolTipText("Stop loading users");
+        cancelLoadingBtn.setFocusPainted(false);
+        cancelLoadingBtn.setFont(new Font("Arial", Font.PLAIN, 12));
+        cancelLoadingBtn.setVisible(false);
+        cancelLoadingBtn.addActionListener(e -> {
+            if (loadingUsers) {
+                userTableLoader.stop();
             }
         });
 
         searchPanel.add(searchField);
         searchPanel.add(addUserBtn);
+        searchPanel.add(importUsersBtn);
+        searchPanel.add(exportUsersBtn);
+        searchPanel.add(loadingProgressBar);
+        searchPanel.add(cancelLoadingBtn);
         topTablePanel.add(searchPanel, BorderLayout.NORTH);
     }
 
     /**
-     * This method reloads the user Profile by reading user session data from a
-     * file. It updates the session labels (username and email).
+     * Applies the result of a search to the table. Called on the EDT by the
+     * {@link UserSearchScheduler} once the latest search text was resolved.
+     * The filter is kept, so a sorter installed later (see
+     * {@link #userTableSorter()}) filters the rows the same way.
+     *
+     * @param searchText The search text.
+     * @param filter The filter of the matching rows, or {@code null} if the
+     * search text is empty.
+     */
+    private void applySearchResult(String searchText, RowFilter<UserTableModel, Integer> filter) {
+        if (filter == null) {
+            searchFilter = null;
+            setInputBorderColor(searchField, "🔎 Search", Color.BLACK);
+            if (sorter != null) {
+                sorter.setRowFilter(null);
+            }
+            return;
+        }
+        if (sorter == null) {
+            return; // Loading, the search runs again once the users are loaded
+        }
+        searchFilter = filter;
+
+        long start = Metrics.timer("users.search.filter").start();
+        sorter.setRowFilter(filter);
+        Metrics.timer("users.search.filter").stop(start);
+        if (userTable.getRowCount() > 0) {
+            setInputBorderColor(searchField, "🔎 Search", Color.BLACK);
+        } else {
+            setInputBorderColor(searchField, "❌ No user found", Color.RED);
+        }
+    }
+
+    /**
+     * Exports the users shown in the table, in the order they are shown, to a
+     * CSV or JSON Lines file chosen by the admin. The file is written by a
+     * {@link UserTableExporter} on a background thread while a progress
+     * dialog is shown; cancelling the dialog stops the export.
+     */
+    private void exportUsers() {
+        if (loadingUsers) {
+            JOptionPane.showMessageDialog(this, "Please wait until the users are loaded.", "Export", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter("CSV files (*.csv)", "csv");
+        FileNameExtensionFilter jsonLinesFilter = new FileNameExtensionFilter("JSON Lines files (*.jsonl)", "jsonl");
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export users");
+        chooser.setAcceptAllFileFilterUsed(false);
+        chooser.addChoosableFileFilter(csvFilter);
+        chooser.addChoosableFileFilter(jsonLinesFilter);
+        chooser.setFileFilter(csvFilter);
+        chooser.setSelectedFile(new File("users.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        UserTableExporter.Format format = chooser.getFileFilter() == jsonLinesFilter
+                ? UserTableExporter.Format.JSON_LINES : UserTableExporter.Format.CSV;
+        String extension = format == UserTableExporter.Format.CSV ? ".csv" : ".jsonl";
+        File target = chooser.getSelectedFile();
+        if (!target.getName().toLowerCase().endsWith(extension)) {
+            target = new File(target.getParentFile(), target.getName() + extension);
+        }
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting users...", target.getName(), 0, 100);
+        monitor.setMillisToDecideToPopup(0);
+        monitor.setMillisToPopup(0);
+        UserTableExporter exporter = new UserTableExporter(userTable, tableModel, target.toPath(), format, finished -> {
+            monitor.close();
+            if (finished.isCancelled()) {
+                return;
+            }
+            try {
+                int exported = finished.get();
+                JOptionPane.showMessageDialog(this, exported + " users exported to:\n" + finished.getTarget(), "Action success!", JOptionPane.INFORMATION_MESSAGE);
+            } catch (InterruptedException | ExecutionException e) {
+                Metrics.error("users.export", e);
+                String message = e.getCause() instanceof IllegalStateException ? e.getCause().getMessage() : "Unable to export the users.";
+                JOptionPane.showMessageDialog(this, message, "Operation failed", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        exporter.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+                if (monitor.isCanceled()) {
+                    exporter.cancel(false);
+                }
+            }
+        });
+        exporter.execute();
+    }
+
+    /**
+     * This method reloads the user Profile by reading the user session data
+     * from {@link UserAuthenticator#getUserSession()}. It updates the session
+     * labels (username and email).
      *
      * The user data is fetched from `./src/auth/loginSession/userSession.txt`,
      * and only one user's session details are displayed in the labels.
      */
     public void reloadUserProfile() {
-        List<String[]> users = readUsersFromFile("./src/auth/loginSession/userSession.txt");
-        if (users == null) {
+        String[] user = userAuth.getUserSession();
+        if (user == null || user.length < 2) {
             return;
         }
 
-        for (String[] user : users) {
-            usernameSessionLabel.setText(user[0]);
-            usernameSessionLabel.setToolTipText("Name: " + usernameSessionLabel.getText());
-            emailSessionLabel.setText(" " + user[1]);
-            emailSessionLabel.setToolTipText("Email: " + emailSessionLabel.getText());
-            roleSessionLabel.setToolTipText("Role: " + roleSessionLabel.getText());
+        usernameSessionLabel.setText(user[0]);
+        usernameSessionLabel.setToolTipText("Name: " + usernameSessionLabel.getText());
+        emailSessionLabel.setText(" " + user[1]);
+        emailSessionLabel.setToolTipText("Email: " + emailSessionLabel.getText());
+        roleSessionLabel.setToolTipText("Role: " + roleSessionLabel.getText());
 
-        }
         userTableSorter();
     }
 
     /**
-     * Loads user data from specified files and populates the table model.
+     * Loads user data from the shared repositories and populates the table
+     * model in the background.
      * <p>
-     * This method reads user information from two files:
+     * This method reads user information from two repositories:
      * <ul>
-     * <li><code>./src/data/userManagement/manageableUsers.txt</code> - Contains
-     * member users.</li>
-     * <li><code>./src/data/users.txt</code> - Contains admin users.</li>
+     * <li>{@link Repositories#members()} - Contains member users
+     * (<code>./src/data/userManagement/manageableUsers.txt</code>).</li>
+     * <li>{@link Repositories#admins()} - Contains admin users
+     * (<code>./src/data/users.txt</code>).</li>
      * </ul>
-     * The retrieved data is added to the table model, and the total count of
-     * users, members, and admins is displayed. The table is then updated with a
-     * custom role-based renderer and sorted.
+     * The users are read by a {@link UserTableLoader} off the Event Dispatch
+     * Thread (EDT) and appended to the table in chunks while a progress bar is
+     * shown. The loading can be stopped with the cancel button, and starting
+     * a new load stops the one still running. The total count of users,
+     * members, and admins follows the rows as they are loaded (see
+     * {@link #showUserStatistics(UserStatistics)}). When loading finishes,
+     * the table is sorted.
      * </p>
      *
-     * @see #readUsersFromFile(String) Reads user data from a file.
-     * @see #RoleBasedRenderer Custom renderer for displaying roles.
+     * @see Repositories In-memory user storage.
+     * @see RoleBasedRenderer Custom renderer for displaying roles.
      */
     public static void loadUsersFromFile() {
-        tableModel.setRowCount(0);
-
-        List<String[]> usersMembers = readUsersFromFile("./src/data/userManagement/manageableUsers.txt");
-        List<String[]> usersAdmin = readUsersFromFile("./src/data/users.txt");
-
-        if (usersMembers != null) {
-            for (String[] user : usersMembers) {
-                tableModel.addRow(new Object[]{user[0], user[1], user[2], user[3], user[4]});
+        UserTableLoader previous = loadingUsers ? userTableLoader : null;
+        loadingUsers = true;
+        usersLoaded = false;
+
+        // The rows are shown in storage order while loading and sorted once at the end.
+        userTable.setRowSorter(null);
+        sorter = null;
+        searchFilter = null; // Refers to the rows that are cleared
+        loadingProgressBar.setValue(0);
+        loadingProgressBar.setVisible(true);
+        cancelLoadingBtn.setVisible(true);
+
+        userTableLoader = new UserTableLoader(tableModel, Repositories.members(), Repositories.admins(), UserManagement::finishLoadingUsers);
+        userTableLoader.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                loadingProgressBar.setValue((Integer) e.getNewValue());
             }
+        });
+        if (previous != null) {
+            // Its chunks still queued on the EDT are dropped instead of added to the new rows.
+            previous.stop();
         }
+        userTableLoader.execute();
+    }
 
-        if (usersAdmin != null) {
-            for (String[] user : usersAdmin) {
-                tableModel.addRow(new Object[]{user[0], user[1], user[2], user[3], user[4]});
-            }
+    /**
+     * Called on the EDT when a {@link UserTableLoader} finished or was
+     * stopped, after its last chunk was added to the table. It hides the
+     * progress bar and sorts the table.
+     * <p>
+     * The table only counts as loaded here, not when the loader
+     * {@link SwingWorker#isDone() is done}: the worker is done as soon as the
+     * background thread returns, before its last chunks have been added on
+     * the EDT.
+     * </p>
+     *
+     * @param loader The loader that finished.
+     */
+    private static void finishLoadingUsers(UserTableLoader loader) {
+        if (loader != userTableLoader) {
+            return; // A load that was stopped when a newer one was started
         }
+        loadingUsers = false;
+        usersLoaded = !loader.isStopped();
+        loadingProgressBar.setVisible(false);
+        cancelLoadingBtn.setVisible(false);
 
-        int adminCount = 0;
-        int memberCount = 0;
-
-        for (int i = 0; i < tableModel.getRowCount(); i++) {
-            String role = (String) tableModel.getValueAt(i, 3);
-            if ("Admin".equalsIgnoreCase(role)) {
-                adminCount++;
-            } else if ("Member".equalsIgnoreCase(role)) {
-                memberCount++;
-            }
+        long start = Metrics.timer("users.load.sort").start();
+        userTableSorter();
+        Metrics.timer("users.load.sort").stop(start);
+        if (searchScheduler != null) {
+            searchScheduler.searchAgain(); // Filters the loaded rows by the search text
         }
-        totalUsersLabelDisplay.setText("Total users: " + tableModel.getRowCount());
-        totalUserMembers.setText("Total members: " + memberCount);
-        totalUserAdmins.setText("Total admins: " + adminCount);
+    }
 
-        userTable.setDefaultRenderer(Object.class, new RoleBasedRenderer());
-        userTableSorter();
+    /**
+     * Displays the total count of users, members, and admins. Called every
+     * time the {@link UserStatistics} of the table model change, so the
+     * table never has to be counted again.
+     *
+     * @param statistics The statistics of the user table.
+     */
+    private static void showUserStatistics(UserStatistics statistics) {
+        totalUsersLabelDisplay.setText("Total users: " + statistics.getTotal());
+        totalUserMembers.setText("Total members: " + statistics.getMemberCount());
+        totalUserAdmins.setText("Total admins: " + statistics.getAdminCount());
     }
 
     /**
-     * This this method renderer modifies the appearance of table cells based on
-     * the user's role:
-     * <ul>
-     * <li><b>Admin</b>: The text is bold, with a cyan background and black
-     * foreground.</li>
-     * <li><b>Other users</b>: Uses default styling, adjusting for
-     * selection.</li>
-     * </ul>
-     * Additionally, passwords in the third column (index 2) are masked with
-     * asterisks.
+     * Applies the saved changes of the members to the table model on the EDT,
+     * so a CRUD operation only updates the changed row instead of loading
+     * all users again. The selection, the scroll position, the sort and the
+     * search of the table stay as they are.
+     * <p>
+     * The events are always queued with
+     * {@link SwingUtilities#invokeLater(Runnable)}, also when the change was
+     * made on the EDT, so they are applied in the order of the changes. If
+     * the users are still being loaded, the load is started again instead,
+     * since it may or may not include the change. If the load was stopped,
+     * the table only holds part of the users, so they are loaded again while
+     * the table is shown; otherwise they are loaded the next time the page
+     * is shown, like every time it is shown.
      * </p>
      */
-    private static class RoleBasedRenderer extends DefaultTableCellRenderer {
+    private static class TableMemberListener implements MemberListener {
 
         @Override
-        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
-                boolean hasFocus, int row, int column) {
-            JLabel label = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-            label.setBorder(BorderFactory.createEmptyBorder(1, 5, 1, 5));
-
-            Object roleValue = table.getValueAt(row, 3);
-            String role = (roleValue != null) ? roleValue.toString() : "";
-
-            if ("Admin".equalsIgnoreCase(role)) {
-                label.setFont(new Font("Ärial", Font.BOLD, 16));
-                label.setBackground(Color.CYAN);
-                label.setForeground(Color.BLACK);
-            } else {
-                label.setBackground(isSelected ? table.getSelectionBackground() : Color.WHITE);
-                label.setForeground(isSelected ? table.getSelectionForeground() : Color.BLACK);
-            }
-
-            if (column == 2 && value != null) {
-                label.setText("**************");
-            }
+        public void membersAdded(int firstIndex, List<User> users) {
+            apply(() -> tableModel.insertMembers(firstIndex, users));
+        }
 
-            return label;
+        @Override
+        public void memberUpdated(int index, User user) {
+            apply(() -> tableModel.updateMember(index, user));
         }
-    }
 
-    /**
-     * This method reads the file line by line, splits each line into an array
-     * of strings, and stores the arrays in a list.
-     * </p>
-     *
-     * @param file The path to the file containing user data.
-     * @return A {@link List} of string arrays, where each array represents a
-     * user. Returns {@code null} if an {@link IOException} occurs while reading
-     * the file.
-     */
-    private static List<String[]> readUsersFromFile(String file) {
-        List<String[]> users = new ArrayList<>();
+        @Override
+        public void memberDeleted(int index) {
+            apply(() -> tableModel.removeMember(index));
+        }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                users.add(line.split(","));
-            }
-            return users;
-        } catch (IOException e) {
-            return null;
+        private static void apply(Runnable change) {
+            SwingUtilities.invokeLater(() -> {
+                if (usersLoaded) {
+                    change.run();
+                } else if (loadingUsers || userTable.isShowing()) {
+                    loadUsersFromFile();
+                }
+            });
         }
     }
 
@@ -538,7 +674,7 @@ public final class UserManagement extends JPanel implements customBorder {
         overlayPanel = new JPanel(new GridBagLayout());
         overlayPanel.setOpaque(false);
 
-        loadingCenter = new JLabel("<html><img src='" + getClass().getResource("/icons/loadingicon.gif") + "' width='100' height='100'></html>");
+        loadingCenter = new JLabel("<html><img src='" + Resources.url("/icons/loadingicon.gif") + "' width='100' height='100'></html>");
         loadingCenter.setPreferredSize(new Dimension(100, 100));
         loadingCenter.setOpaque(false);
 
@@ -574,9 +710,11 @@ public final class UserManagement extends JPanel implements customBorder {
      * @see RowFilter
      */
     public void refreshUI() {
-        sorter = new TableRowSorter<>(tableModel);
+        searchFilter = null;
+        sorter = createUserTableSorter();
         userTable.setRowSorter(sorter);
         sorter.setRowFilter(RowFilter.regexFilter("(?i)" + ""));
+        searchScheduler.cancel();
         searchField.setText("");
         revalidate();
         repaint();
@@ -585,7 +723,10 @@ public final class UserManagement extends JPanel implements customBorder {
     /**
      * This method initializes a {@link TableRowSorter} for the user table
      * model, sets the default sorting order to ascending for the first column,
-     * and applies the sorting to update the table view.
+     * and applies the sorting to update the table view. Setting the sort keys
+     * already sorts the table, so it is sorted only once. The filter of the
+     * last search is kept, so the table still only shows the rows matching
+     * the search field.
      * </p>
      *
      * @see TableRowSorter
@@ -593,10 +734,29 @@ public final class UserManagement extends JPanel implements customBorder {
      * @see SortOrder
      */
     public static void userTableSorter() {
-        sorter = new TableRowSorter<>(tableModel);
+        sorter = createUserTableSorter();
+        sorter.setRowFilter(searchFilter);
         userTable.setRowSorter(sorter);
 
         sorter.setSortKeys(java.util.List.of(new RowSorter.SortKey(0, SortOrder.ASCENDING)));
-        sorter.sort();
+    }
+
+    /**
+     * Creates a {@link TableRowSorter} for the user table model. The columns
+     * are compared case-insensitively with
+     * {@link String#CASE_INSENSITIVE_ORDER} instead of the default
+     * {@link java.text.Collator}, which is many times slower when sorting a
+     * large table on the EDT.
+     *
+     * @return The new sorter.
+     */
+    private static TableRowSorter<UserTableModel> createUserTableSorter() {
+        TableRowSorter<UserTableModel> userSorter = new TableRowSorter<>(tableModel);
+        for (int column = 0; column < tableModel.getColumnCount(); column++) {
+            userSorter.setComparator(column, String.CASE_INSENSITIVE_ORDER);
+        }
+        // An edited row moves to its sorted position
+        userSorter.setSortsOnUpdates(true);
+        return userSorter;
     }
 }
@@ -0,0 +1,89 @@
+package components.userManagementUtils;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import javax.swing.BorderFactory;
+import javax.swing.JTable;
+import javax.swing.border.Border;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * The cell renderer of the user table, which modifies the appearance of the
+ * cells based on the role of the user:
+ * <ul>
+ * <li><b>Admin</b>: The text is bold, with a cyan background and black
+ * foreground.</li>
+ * <li><b>Other users</b>: Uses default styling, adjusting for
+ * selection.</li>
+ * </ul>
+ * Additionally, the renderer of the Password column masks the passwords
+ * with asterisks (see {@link #RoleBasedRenderer(UserTableModel, boolean)}).
+ * <p>
+ * The renderer is called for every visible cell on every paint, so it does
+ * not allocate anything: the role of a row is read from the flag the
+ * {@link UserTableModel} computed when the row was added
+ * ({@link UserTableModel#isAdminRow(int)}) instead of the Role cell, and the
+ * font, border and mask are created once and shared. The model row is
+ * looked up once per cell, and whether the cell is masked is fixed when the
+ * renderer is installed on its column, instead of being looked up through
+ * the column model for every cell.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class RoleBasedRenderer extends DefaultTableCellRenderer {
+
+    private static final String PASSWORD_MASK = "**************";
+    private static final Font ADMIN_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Border CELL_BORDER = BorderFactory.createEmptyBorder(1, 5, 1, 5);
+
+    private final UserTableModel tableModel;
+    private final boolean masked;
+
+    /**
+     * Creates the renderer of the columns of a user table that are shown as
+     * they are.
+     *
+     * @param tableModel The model of the user table.
+     */
+    public RoleBasedRenderer(UserTableModel tableModel) {
+        this(tableModel, false);
+    }
+
+    /**
+     * Creates the renderer of a column of a user table.
+     *
+     * @param tableModel The model of the user table.
+     * @param masked {@code true} for the Password column, whose values are
+     * masked with asterisks.
+     */
+    public RoleBasedRenderer(UserTableModel tableModel, boolean masked) {
+        this.tableModel = tableModel;
+        this.masked = masked;
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+            boolean hasFocus, int row, int column) {
+        super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        setBorder(CELL_BORDER);
+
+        if (tableModel.isAdminRow(table.convertRowIndexToModel(row))) {
+            setFont(ADMIN_FONT);
+            setBackground(Color.CYAN);
+            setForeground(Color.BLACK);
+        } else {
+            setBackground(isSelected ? table.getSelectionBackground() : Color.WHITE);
+            setForeground(isSelected ? table.getSelectionForeground() : Color.BLACK);
+        }
+
+        if (masked && value != null) {
+            setText(PASSWORD_MASK);
+        }
+
+        return this;
+    }
+}
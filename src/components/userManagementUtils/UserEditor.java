@@ -1,22 +1,20 @@
 package components.userManagementUtils;
 
 import auth.UserAuthenticator;
-import components.UserManagement;
 import java.awt.*;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import metrics.Metrics;
+import service.ImportResult;
+import service.UserService;
+import service.UserServiceException;
+import service.UserValidator;
 import util.customBorder;
 
 /**
@@ -33,15 +31,6 @@ public class UserEditor implements customBorder {
     private final static String emailBorderTitle = " ✉️ Email address";
     private final static String passwordBorderTitle = " 🔒 Password";
 
-    final static Pattern VALID_EMAIL_ADDRESS_REGEX
-            = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$", Pattern.CASE_INSENSITIVE);
-
-    private static final Pattern VALID_PASSWORD_REGEX_NUMBER_CHAR = Pattern.compile(".*[0-9].*");
-
-    private static final Pattern VALID_PASSWORD_REGEX_UPPER_CHAR = Pattern.compile(".*[A-Z].*");
-
-    private static final Pattern VALID_PASSWORD_REGEX_SPECIAL_CHAR = Pattern.compile(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?].*");
-
     /**
      * Edits the details of a selected user in the user management system.
      * <p>
@@ -57,12 +46,12 @@ public class UserEditor implements customBorder {
      * </p>
      *
      * @param userTable The {@code JTable} displaying the list of users.
-     * @param tableModel The {@code DefaultTableModel} used to manage the user
+     * @param tableModel The {@code UserTableModel} used to show the user
      * table data.
      * @param userAuth The {@code UserAuthenticator} instance used for
      * authentication and validation.
      */
-    public void editUser(JTable userTable, DefaultTableModel tableModel, UserAuthenticator userAuth) {
+    public void editUser(JTable userTable, UserTableModel tableModel, UserAuthenticator userAuth) {
         int selectedRow = userTable.getSelectedRow();
         if (selectedRow == -1) {
             JOptionPane.showMessageDialog(null, "No user selected!", "Error", JOptionPane.ERROR_MESSAGE);
@@ -192,104 +181,46 @@ public class UserEditor implements customBorder {
      * otherwise, {@code false}.
      */
     private boolean validateInput(JTextField usernameField, JTextField emailField, JPasswordField passwordField, JDialog dialog) {
-        String newUsername = usernameField.getText().trim();
-        String newEmail = emailField.getText().trim();
-        String newPassword = new String(passwordField.getPassword()).trim();
-        Pattern namePattern = Pattern.compile("[^a-zA-Z ]");
-
-        Matcher emailMatcher = VALID_EMAIL_ADDRESS_REGEX.matcher(newEmail);
-        Matcher passwordNumberMatcher = VALID_PASSWORD_REGEX_NUMBER_CHAR.matcher(newPassword);
-        Matcher passwordUpperMatcher = VALID_PASSWORD_REGEX_UPPER_CHAR.matcher(newPassword);
-        Matcher passwordSpecCharMatcher = VALID_PASSWORD_REGEX_SPECIAL_CHAR.matcher(newPassword);
-
         setInputBorderColor(usernameField, userNameBorderTitle, Color.BLACK);
         setInputBorderColor(emailField, emailBorderTitle, Color.BLACK);
         setInputBorderColor(passwordField, passwordBorderTitle, Color.BLACK);
 
-        if (newUsername.isEmpty()) {
-            setInputBorderColor(usernameField, userNameBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Username cannot be empty!", usernameField);
-            usernameField.grabFocus();
-            return false;
-        }
-        if (newUsername.length() < 3) {
-            setInputBorderColor(usernameField, userNameBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Please enter the username correctly!", usernameField);
-            usernameField.grabFocus();
-            return false;
-        }
-        if (namePattern.matcher(newUsername).find()) {
-            setInputBorderColor(usernameField, userNameBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Special characters and numbers are not allowed in username", usernameField);
-            usernameField.grabFocus();
+        String usernameError = UserValidator.usernameError(usernameField.getText().trim());
+        if (usernameError != null) {
+            showInvalidInput(dialog, usernameError, usernameField, userNameBorderTitle);
             return false;
         }
-        if (newEmail.isEmpty()) {
-            setInputBorderColor(emailField, emailBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Please enter the email!", emailField);
-            emailField.grabFocus();
+        String emailError = UserValidator.emailError(emailField.getText().trim());
+        if (emailError != null) {
+            showInvalidInput(dialog, emailError, emailField, emailBorderTitle);
             return false;
         }
-        if (!emailMatcher.matches()) {
-            setInputBorderColor(emailField, emailBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Please enter the email address correctly.", emailField);
-            emailField.grabFocus();
-            return false;
-        }
-        if (newPassword.isEmpty()) {
-            setInputBorderColor(passwordField, passwordBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Please enter the password!", passwordField);
-            passwordField.grabFocus();
-            return false;
-        }
-        if (newPassword.length() < 8) {
-            setInputBorderColor(passwordField, passwordBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "Password must be at least 8 characters long!", passwordField);
-            passwordField.grabFocus();
-            return false;
-        }
-        if (!passwordUpperMatcher.matches()) {
-            setInputBorderColor(passwordField, passwordBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "The password must at least one uppercase", passwordField);
-            passwordField.grabFocus();
-            return false;
-        }
-        if (!passwordNumberMatcher.matches()) {
-            setInputBorderColor(passwordField, passwordBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "The password must at least one number", passwordField);
-            passwordField.grabFocus();
-            return false;
-        }
-        if (!passwordSpecCharMatcher.matches()) {
-            setInputBorderColor(passwordField, passwordBorderTitle, Color.RED);
-            Toolkit.getDefaultToolkit().beep();
-            showError(dialog, "The password must at least one special character", passwordField);
-            passwordField.grabFocus();
+        String passwordError = UserValidator.passwordError(new String(passwordField.getPassword()));
+        if (passwordError != null) {
+            showInvalidInput(dialog, passwordError, passwordField, passwordBorderTitle);
             return false;
         }
         return true;
     }
 
+    private void showInvalidInput(JDialog dialog, String message, JTextField field, String borderTitle) {
+        setInputBorderColor(field, borderTitle, Color.RED);
+        Toolkit.getDefaultToolkit().beep();
+        showError(dialog, message, field);
+        field.grabFocus();
+    }
+
     /**
      * This method opens a dialog to add a new user to the system. The admin
      * must provide a username, email, and password, which are validated before
      * adding.
      *
      * @param userTable The JTable where the user data is displayed.
-     * @param tableModel The DefaultTableModel associated with the userTable.
+     * @param tableModel The UserTableModel associated with the userTable.
      * @param userAuth An instance of UserAuthenticator to verify admin
      * credentials.
      */
-    public void addUser(JTable userTable, DefaultTableModel tableModel, UserAuthenticator userAuth) {
+    public void addUser(JTable userTable, UserTableModel tableModel, UserAuthenticator userAuth) {
 
         JDialog dialog = new JDialog((Frame) null, "Add New User", true);
         dialog.setSize(450, 380);
@@ -363,7 +294,7 @@ public class UserEditor implements customBorder {
         saveButton.addActionListener(e -> {
             String newUsername = newUsernameField.getText().trim();
             String newEmail = newEmailField.getText().trim().toLowerCase();
-            String newPassword = new String(newPasswordField.getPassword()).trim();
+            String newPassword = new String(newPasswordField.getPassword());
 
             setInputBorderColor(newUsernameField, userNameBorderTitle, Color.BLACK);
             setInputBorderColor(newEmailField, emailBorderTitle, Color.BLACK);
@@ -385,18 +316,10 @@ public class UserEditor implements customBorder {
                     if (adminPasswordConfirm == JOptionPane.OK_OPTION) {
                         char[] getAdminPasswordField = adminPasswordField.getPassword();
                         String passwordToStringAdmin = new String(getAdminPasswordField);
-                        if (!passwordToStringAdmin.trim().isEmpty() && userAuth.confirmUserAdminChanges(passwordToStringAdmin)) {
-                            LocalDate currentDate = LocalDate.now();
-                            tableModel.addRow(new Object[]{newUsername, newEmail, newPassword, "member", currentDate});
-                            tableModel.fireTableDataChanged();
+                        confirmAdminPassword(userAuth, passwordToStringAdmin, () -> {
                             dialog.dispose();
-                            saveUsersToFile(tableModel);
-                            Toolkit.getDefaultToolkit().beep();
-                            JOptionPane.showMessageDialog(null, "New User added successfully!", "Action success!", JOptionPane.INFORMATION_MESSAGE);
-                        } else {
-                            Toolkit.getDefaultToolkit().beep();
-                            JOptionPane.showMessageDialog(null, "Incorrect admin password!", "Invalid Details", JOptionPane.ERROR_MESSAGE);
-                        }
+                            save(() -> UserService.shared().addMember(newUsername, newEmail, newPassword), "New User added successfully!");
+                        });
                     }
                 }
             }
@@ -412,7 +335,7 @@ public class UserEditor implements customBorder {
      * before applying changes.
      *
      * @param userTable The JTable displaying user data.
-     * @param tableModel The DefaultTableModel associated with the userTable.
+     * @param tableModel The UserTableModel associated with the userTable.
      * @param userAuth An instance of UserAuthenticator to verify admin
      * credentials.
      * @param modelRow The row index of the user in the table.
@@ -421,7 +344,7 @@ public class UserEditor implements customBorder {
      * @param passwordField The JPasswordField containing the updated password.
      * @param dialog The JDialog window for editing user details.
      */
-    private void confirmAdminAndSave(JTable userTable, DefaultTableModel tableModel, UserAuthenticator userAuth, int modelRow,
+    private void confirmAdminAndSave(JTable userTable, UserTableModel tableModel, UserAuthenticator userAuth, int modelRow,
             JTextField usernameField, JTextField emailField, JPasswordField passwordField, JDialog dialog) {
         int confirm = JOptionPane.showConfirmDialog(null, "Are you sure you want to change details of this user?",
                 "Confirm Changes", JOptionPane.YES_NO_OPTION);
@@ -434,19 +357,12 @@ public class UserEditor implements customBorder {
 
             if (adminPasswordConfirm == JOptionPane.OK_OPTION) {
                 String adminPassword = new String(adminPasswordField.getPassword()).trim();
-                if (!adminPassword.isEmpty() && userAuth.confirmUserAdminChanges(adminPassword)) {
-                    tableModel.setValueAt(usernameField.getText(), modelRow, 0);
-                    tableModel.setValueAt(emailField.getText(), modelRow, 1);
-                    tableModel.setValueAt(new String(passwordField.getPassword()), modelRow, 2);
-                    tableModel.fireTableDataChanged();
+                confirmAdminPassword(userAuth, adminPassword, () -> {
+                    int memberIndex = tableModel.getMemberIndex(modelRow);
                     dialog.dispose();
-                    saveUsersToFile(tableModel);
-                    Toolkit.getDefaultToolkit().beep();
-                    JOptionPane.showMessageDialog(null, "User details changed successfully!", "Action success!", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    Toolkit.getDefaultToolkit().beep();
-                    JOptionPane.showMessageDialog(null, "Incorrect admin password!", "Invalid Details", JOptionPane.ERROR_MESSAGE);
-                }
+                    save(() -> UserService.shared().updateMember(memberIndex, usernameField.getText(), emailField.getText(),
+                            new String(passwordField.getPassword())), "User details changed successfully!");
+                });
             }
         }
     }
@@ -457,11 +373,11 @@ public class UserEditor implements customBorder {
      * updated user list is saved.
      *
      * @param userTable The JTable displaying the list of users.
-     * @param tableModel The DefaultTableModel associated with the JTable.
+     * @param tableModel The UserTableModel associated with the JTable.
      * @param userAuth An instance of UserAuthenticator to verify admin
      * credentials.
      */
-    public void deleteUser(JTable userTable, DefaultTableModel tableModel, UserAuthenticator userAuth) {
+    public void deleteUser(JTable userTable, UserTableModel tableModel, UserAuthenticator userAuth) {
         int selectedRow = userTable.getSelectedRow();
         int modelRow = userTable.convertRowIndexToModel(selectedRow);
         String role = (String) tableModel.getValueAt(modelRow, 3);
@@ -485,82 +401,184 @@ public class UserEditor implements customBorder {
             if (adminPasswordConfirm == JOptionPane.OK_OPTION) {
                 char[] getAdminPasswordField = adminPasswordField.getPassword();
                 String passwordToStringAdmin = new String(getAdminPasswordField);
-                if (!passwordToStringAdmin.trim().isEmpty() && userAuth.confirmUserAdminChanges(passwordToStringAdmin)) {
-                    tableModel.removeRow(modelRow);
-                    saveUsersToFile(tableModel);
-                    Toolkit.getDefaultToolkit().beep();
-                    JOptionPane.showMessageDialog(null, "User deleted successfully!", "Action success!", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    Toolkit.getDefaultToolkit().beep();
-                    JOptionPane.showMessageDialog(null, "Incorrect admin password!", "Invalid Details", JOptionPane.ERROR_MESSAGE);
-                }
+                confirmAdminPassword(userAuth, passwordToStringAdmin, () -> {
+                    int memberIndex = tableModel.getMemberIndex(modelRow);
+                    save(() -> UserService.shared().deleteMember(memberIndex), "User deleted successfully!");
+                });
             }
         }
     }
 
-    private static void showError(JDialog dialog, String message, JComponent field) {
-        JOptionPane.showMessageDialog(dialog, message, "Error", JOptionPane.ERROR_MESSAGE);
-        field.grabFocus();
+    /**
+     * Imports the members of a CSV file (<code>username,email,password</code>
+     * per line) chosen by the admin.
+     * <p>
+     * After the admin password is confirmed, the file is imported by
+     * {@link UserService#importMembers(Path, Path, java.util.function.IntConsumer)}
+     * on a background thread while a progress dialog is shown. The rows are
+     * checked with the same rules as {@link #validateInput}, and the accepted
+     * rows are saved together and inserted into the user table at once. The
+     * rejected rows are listed in <code>&lt;file&gt;.rejects.csv</code> next
+     * to the imported file. Cancelling the progress dialog stops the import
+     * before any member is added.
+     * </p>
+     *
+     * @param userAuth The {@code UserAuthenticator} instance used for
+     * authentication and validation.
+     */
+    public void importUsers(UserAuthenticator userAuth) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import users");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files (username,email,password)", "csv", "txt"));
+        if (chooser.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File csv = chooser.getSelectedFile();
+
+        int confirm = JOptionPane.showConfirmDialog(null, "Are you sure you want to import the users of " + csv.getName() + "?",
+                "Confirm Changes", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            JPasswordField adminPasswordField = new JPasswordField();
+            setInputBorderColor(adminPasswordField, "Enter your password", Color.BLACK);
+            int adminPasswordConfirm = JOptionPane.showConfirmDialog(null, adminPasswordField, "🔑 Confirm Your Password", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (adminPasswordConfirm == JOptionPane.OK_OPTION) {
+                String passwordToStringAdmin = new String(adminPasswordField.getPassword());
+                confirmAdminPassword(userAuth, passwordToStringAdmin, () -> runImportTask(csv));
+            }
+        }
     }
 
     /**
-     * Saves the new table data to file
+     * Runs the import of a CSV file in a {@link SwingWorker} and shows its
+     * progress in a {@link ProgressMonitor}.
      *
-     * @param tableModel
+     * @param csv The file to import.
      */
-    private static void saveUsersToFile(DefaultTableModel tableModel) {
-        String filePath = "./src/data/userManagement/manageableUsers.txt";
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String username = (String) tableModel.getValueAt(i, 0);
-                String email = (String) tableModel.getValueAt(i, 1);
-                String password = (String) tableModel.getValueAt(i, 2);
-                String role = (String) tableModel.getValueAt(i, 3);
-                Object createdAtObj = tableModel.getValueAt(i, 4);
-                String createdAt = (createdAtObj instanceof LocalDate) ? createdAtObj.toString() : String.valueOf(createdAtObj);
-
-                if (role.equalsIgnoreCase("admin")) {
-                    continue;
-                }
+    private static void runImportTask(File csv) {
+        Path rejectsReport = csv.toPath().resolveSibling(csv.getName() + ".rejects.csv");
+        ProgressMonitor monitor = new ProgressMonitor(null, "Importing users...", csv.getName(), 0, 100);
+        monitor.setMillisToDecideToPopup(0);
+        monitor.setMillisToPopup(0);
 
-                String line = username + "," + email + "," + password + "," + role + "," + createdAt;
-                writer.write(line);
-                writer.newLine();
+        SwingWorker<ImportResult, Void> worker = new SwingWorker<>() {
+            @Override
+            protected ImportResult doInBackground() {
+                return UserService.shared().importMembers(csv.toPath(), rejectsReport, percent -> {
+                    if (monitor.isCanceled()) {
+                        throw new CancellationException();
+                    }
+                    setProgress(percent);
+                });
             }
-            writer.flush();
-            UserManagement.loadUsersFromFile();
-        } catch (IOException e) {
-        }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                ImportResult result;
+                try {
+                    result = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    if (!(e.getCause() instanceof CancellationException)) {
+                        Metrics.counter("users.save.failure").increment();
+                        Toolkit.getDefaultToolkit().beep();
+                        String message = e.getCause() instanceof UserServiceException ? e.getCause().getMessage() : "Unable to import the users.";
+                        JOptionPane.showMessageDialog(null, message, "Operation failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                    return;
+                }
+                Toolkit.getDefaultToolkit().beep();
+                String message = result.imported() + " users imported successfully!";
+                if (result.rejected() > 0) {
+                    message += "\n" + result.rejected() + " rows were rejected, see:\n" + result.rejectsReport();
+                }
+                JOptionPane.showMessageDialog(null, message, "Action success!", JOptionPane.INFORMATION_MESSAGE);
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
     }
 
     /**
-     * This method reads the file line by line, splits each line into an array
-     * of strings, and stores the arrays in a list.
-     * </p>
+     * Verifies the admin password on a background thread, since the password
+     * hash is slow to check on purpose, and runs the CRUD operation on the
+     * EDT once it is confirmed.
      *
-     * @param file The path to the file containing user data.
-     * @return A {@link List} of string arrays, where each array represents a
-     * user. Returns {@code null} if an {@link IOException} occurs while reading
-     * the file.
+     * @param userAuth An instance of UserAuthenticator to verify admin
+     * credentials.
+     * @param adminPassword The password entered by the admin.
+     * @param onConfirmed The operation to run if the password is correct.
      */
-    private List<String[]> readUsersFromFile(String file) {
-        List<String[]> users = new ArrayList<>();
+    private static void confirmAdminPassword(UserAuthenticator userAuth, String adminPassword, Runnable onConfirmed) {
+        if (adminPassword.trim().isEmpty()) {
+            showIncorrectAdminPassword();
+            return;
+        }
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return userAuth.confirmUserAdminChanges(adminPassword);
+            }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                users.add(line.split(","));
+            @Override
+            protected void done() {
+                boolean confirmed;
+                try {
+                    confirmed = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    confirmed = false;
+                }
+                if (confirmed) {
+                    onConfirmed.run();
+                } else {
+                    showIncorrectAdminPassword();
+                }
             }
-            return users;
-        } catch (IOException e) {
-            return null;
+        }.execute();
+    }
+
+    private static void showIncorrectAdminPassword() {
+        Toolkit.getDefaultToolkit().beep();
+        JOptionPane.showMessageDialog(null, "Incorrect admin password!", "Invalid Details", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static void showError(JDialog dialog, String message, JComponent field) {
+        JOptionPane.showMessageDialog(dialog, message, "Error", JOptionPane.ERROR_MESSAGE);
+        field.grabFocus();
+    }
+
+    /**
+     * Applies a CRUD operation through the {@link UserService} and tells the
+     * admin whether the operation was saved. The user table is not reloaded;
+     * the service sends the change to the table model, which updates only
+     * the changed row.
+     *
+     * @param operation The operation to apply.
+     * @param successMessage The message to show if the change was saved.
+     */
+    private static void save(Runnable operation, String successMessage) {
+        String error = null;
+        try {
+            operation.run();
+        } catch (UserServiceException e) {
+            error = e.getMessage();
+        }
+        Toolkit.getDefaultToolkit().beep();
+        if (error == null) {
+            JOptionPane.showMessageDialog(null, successMessage, "Action success!", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            Metrics.counter("users.save.failure").increment();
+            JOptionPane.showMessageDialog(null, error, "Operation failed", JOptionPane.ERROR_MESSAGE);
         }
     }
 
     /**
      * This method checks if a user with the given email is already registered
-     * in the manageable users file. The method reads the user data from a text
-     * file and verifies if the provided email exists.
+     * in the manageable users. The method looks up the provided email in the
+     * member repository through the {@link UserService}.
      *
      * @param username The username of the user (not used in the current
      * implementation).
@@ -571,19 +589,8 @@ public class UserEditor implements customBorder {
      * {@code false}.
      */
     public boolean checkRegisteredUsers(String username, String email, String password) {
-        List<String[]> loadedManageableUsers = readUsersFromFile("./src/data/userManagement/manageableUsers.txt");
         email = email.toLowerCase();
 
-        boolean existedInManageable = false;
-
-        if (loadedManageableUsers != null) {
-            for (String[] user : loadedManageableUsers) {
-                if (user[1].equalsIgnoreCase(email)) {
-                    existedInManageable = true;
-                    break;
-                }
-            }
-        }
-        return existedInManageable;
+        return UserService.shared().findMember(email) != null;
     }
 }
@@ -0,0 +1,427 @@
+package components.userManagementUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import storage.User;
+
+/**
+ * An inverted trigram index over the searchable columns of the user table
+ * (Username, Email, Role and CreatedAt - not Password).
+ * <p>
+ * Every indexed user gets a document id. For each searchable value, all of
+ * its three-character substrings (trigrams) are added to a posting list of
+ * document ids. A search for a text of at least three characters intersects
+ * the posting lists of the trigrams of the text, and only the remaining
+ * candidates are checked with {@link String#contains(CharSequence)}. Shorter
+ * texts are matched against the pre-normalized values without allocating
+ * any strings.
+ * </p>
+ * <p>
+ * Document ids are never reused: removing a user only marks its document as
+ * deleted (its values are kept until the index is cleared), and updating a
+ * user removes the old document and indexes a new one. The values and
+ * posting list entries of a document are never changed once it is indexed,
+ * which lets a {@link Search} run without a lock. The caller keeps track of
+ * the document id of every row and can {@link #clear()} the index to rebuild
+ * it.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class UserSearchIndex {
+
+    /**
+     * The searchable columns: Username, Email, Role and CreatedAt.
+     */
+    private static final int FIELDS = 4;
+
+    /**
+     * A posting list holding more than 1/16 of all documents is intersected
+     * as a bitmap.
+     */
+    private static final int DENSE_POSTING_RATIO = 16;
+
+    private String[] values = new String[FIELDS * 64];
+    private final BitSet liveDocs = new BitSet();
+    private int docCount;
+    private int liveCount;
+
+    private TrigramTable trigrams = new TrigramTable();
+    private int[][] postings = new int[64][];
+    private int[] postingSizes = new int[64];
+
+    /**
+     * Indexes a user.
+     *
+     * @param user The user to index.
+     * @return The document id of the user.
+     */
+    public int add(User user) {
+        int doc = docCount++;
+        if ((doc + 1) * FIELDS > values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[doc * FIELDS] = normalize(user.username());
+        values[doc * FIELDS + 1] = normalize(user.email());
+        values[doc * FIELDS + 2] = normalize(user.role());
+        values[doc * FIELDS + 3] = normalize(user.createdAt());
+
+        for (int field = 0; field < FIELDS; field++) {
+            String value = values[doc * FIELDS + field];
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                addPosting(trigrams.idOf(trigram(value, i), true), doc);
+            }
+        }
+        liveDocs.set(doc);
+        liveCount++;
+        return doc;
+    }
+
+    /**
+     * Removes a document from the search results.
+     *
+     * @param doc The document id returned by {@link #add(User)}.
+     */
+    public void remove(int doc) {
+        if (doc >= 0 && liveDocs.get(doc)) {
+            liveDocs.clear(doc);
+            liveCount--;
+        }
+    }
+
+    /**
+     * Replaces the indexed user of a document.
+     *
+     * @param doc The document id of the old user.
+     * @param user The new user.
+     * @return The document id of the new user.
+     */
+    public int update(int doc, User user) {
+        remove(doc);
+        return add(user);
+    }
+
+    /**
+     * Removes every document from the index. The arrays are replaced instead
+     * of cleared, since a prepared {@link Search} may still read them.
+     */
+    public void clear() {
+        values = new String[FIELDS * 64];
+        liveDocs.clear();
+        docCount = 0;
+        liveCount = 0;
+        trigrams = new TrigramTable();
+        postings = new int[64][];
+        postingSizes = new int[64];
+    }
+
+    /**
+     * @return The number of documents that were removed but still take space
+     * in the posting lists.
+     */
+    public int deletedCount() {
+        return docCount - liveCount;
+    }
+
+    /**
+     * Finds the documents whose Username, Email, Role or CreatedAt contains
+     * the given text (case-insensitive, trimmed).
+     *
+     * @param text The text to search for.
+     * @return A {@link BitSet} of the matching document ids.
+     * @throws CancellationException If the searching thread is interrupted.
+     */
+    public BitSet search(String text) {
+        return prepare(text).run();
+    }
+
+    /**
+     * Prepares a search of the documents indexed so far. Preparing only
+     * copies the live documents and looks up the posting lists of the text,
+     * so it is cheap to do under the lock that guards the index. The
+     * returned {@link Search} can then run without that lock, while users
+     * are added, updated and removed: it only reads the values and posting
+     * list entries of the documents indexed before it was prepared, which
+     * are never changed afterwards, and {@link #clear()} replaces the arrays
+     * instead of clearing them.
+     *
+     * @param text The text to search for.
+     * @return The search, which may run on any thread.
+     */
+    public Search prepare(String text) {
+        String query = normalize(text);
+        int[][] lists = null;
+        int[] sizes = null;
+        if (query.length() >= 3) {
+            int queryTrigrams = query.length() - 2;
+            lists = new int[queryTrigrams][];
+            sizes = new int[queryTrigrams];
+            for (int i = 0; i < queryTrigrams; i++) {
+                int id = trigrams.idOf(trigram(query, i), false);
+                if (id < 0) {
+                    return new Search(query, docCount, new BitSet(), values, null, null);
+                }
+                lists[i] = postings[id];
+                sizes[i] = postingSizes[id];
+            }
+        }
+        return new Search(query, docCount, (BitSet) liveDocs.clone(), values, lists, sizes);
+    }
+
+    /**
+     * A search of the documents that were indexed when it was prepared with
+     * {@link #prepare(String)}.
+     */
+    public static final class Search {
+
+        private final String query;
+        private final int docCount;
+        private final BitSet liveDocs;
+        private final String[] values;
+        private final int[][] lists;
+        private final int[] sizes;
+
+        private Search(String query, int docCount, BitSet liveDocs, String[] values, int[][] lists, int[] sizes) {
+            this.query = query;
+            this.docCount = docCount;
+            this.liveDocs = liveDocs;
+            this.values = values;
+            this.lists = lists;
+            this.sizes = sizes;
+        }
+
+        /**
+         * Runs the search.
+         *
+         * @return A {@link BitSet} of the matching document ids.
+         * @throws CancellationException If the searching thread is
+         * interrupted.
+         */
+        public BitSet run() {
+            BitSet result = new BitSet(docCount);
+            if (query.isEmpty()) {
+                result.or(liveDocs);
+                return result;
+            }
+
+            if (query.length() < 3) {
+                for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+                    checkInterrupted(doc);
+                    if (matches(doc)) {
+                        result.set(doc);
+                    }
+                }
+                return result;
+            }
+            if (lists == null) {
+                return result; // A trigram of the text is in no document
+            }
+
+            // Start with the shortest posting list and intersect the others with it.
+            int shortest = 0;
+            for (int i = 1; i < sizes.length; i++) {
+                if (sizes[i] < sizes[shortest]) {
+                    shortest = i;
+                }
+            }
+
+            // A text of exactly one trigram needs no verification, its posting list is the answer.
+            boolean verify = sizes.length > 1;
+            int candidateCount = sizes[shortest];
+            if (candidateCount > docCount / DENSE_POSTING_RATIO) {
+                // Dense posting lists are intersected as bitmaps instead of with binary searches.
+                setAll(result, shortest);
+                BitSet posting = new BitSet(docCount);
+                for (int i = 0; i < sizes.length && !result.isEmpty(); i++) {
+                    if (i != shortest) {
+                        posting.clear();
+                        setAll(posting, i);
+                        result.and(posting);
+                    }
+                }
+                result.and(liveDocs);
+                if (verify) {
+                    for (int doc = result.nextSetBit(0); doc >= 0; doc = result.nextSetBit(doc + 1)) {
+                        checkInterrupted(doc);
+                        if (!matches(doc)) {
+                            result.clear(doc);
+                        }
+                    }
+                }
+                return result;
+            }
+
+            int[] candidates = lists[shortest];
+            for (int c = 0; c < candidateCount; c++) {
+                checkInterrupted(c);
+                int doc = candidates[c];
+                if (liveDocs.get(doc) && inAllPostings(doc, shortest) && (!verify || matches(doc))) {
+                    result.set(doc);
+                }
+            }
+            return result;
+        }
+
+        private void setAll(BitSet bits, int trigram) {
+            int[] list = lists[trigram];
+            for (int i = 0, size = sizes[trigram]; i < size; i++) {
+                bits.set(list[i]);
+            }
+        }
+
+        /**
+         * Checks with a binary search if the document is in every posting
+         * list of the query (the posting lists are sorted, as document ids
+         * only grow).
+         */
+        private boolean inAllPostings(int doc, int skip) {
+            for (int i = 0; i < lists.length; i++) {
+                if (i != skip && Arrays.binarySearch(lists[i], 0, sizes[i], doc) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(int doc) {
+            for (int field = 0; field < FIELDS; field++) {
+                if (values[doc * FIELDS + field].contains(query)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stops a long search every few thousand documents if the searching
+     * thread was interrupted, so a stale search can be cancelled.
+     *
+     * @param i The loop counter of the search.
+     * @throws CancellationException If the thread was interrupted.
+     */
+    static void checkInterrupted(int i) {
+        if ((i & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search cancelled");
+        }
+    }
+
+    /**
+     * Checks a single document against a search text, without the posting
+     * lists.
+     *
+     * @param doc The document id.
+     * @param query The search text, normalized with {@link #normalize(String)}.
+     * @return {@code true} if the document is live and matches the text.
+     */
+    boolean matches(int doc, String query) {
+        if (doc < 0 || !liveDocs.get(doc)) {
+            return false;
+        }
+        for (int field = 0; field < FIELDS; field++) {
+            if (values[doc * FIELDS + field].contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addPosting(int id, int doc) {
+        if (id >= postings.length) {
+            postings = Arrays.copyOf(postings, postings.length * 2);
+            postingSizes = Arrays.copyOf(postingSizes, postingSizes.length * 2);
+        }
+        int[] list = postings[id];
+        int size = postingSizes[id];
+        if (size > 0 && list[size - 1] == doc) {
+            return; // The trigram appears more than once in this document
+        }
+        if (list == null) {
+            list = postings[id] = new int[4];
+        } else if (size == list.length) {
+            list = postings[id] = Arrays.copyOf(list, size * 2);
+        }
+        list[size] = doc;
+        postingSizes[id] = size + 1;
+    }
+
+    /**
+     * @return The document id the next added user will get. Every document
+     * id below it was assigned before.
+     */
+    int nextDocId() {
+        return docCount;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    /**
+     * An open-addressing table that gives every distinct trigram a dense id,
+     * without boxing the packed trigram keys.
+     */
+    private static final class TrigramTable {
+
+        private long[] keys = new long[1024];
+        private int[] ids = new int[1024];
+        private boolean[] used = new boolean[1024];
+        private int size;
+
+        int idOf(long key, boolean create) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (!create) {
+                return -1;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                rehash();
+                return idOf(key, true);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            ids[slot] = size;
+            return size++;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldIds = ids;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            ids = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (used[slot]) {
+                        slot = (slot + 1) & mask;
+                    }
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package components.userManagementUtils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+import javax.swing.RowFilter;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import metrics.Metrics;
+
+/**
+ * Schedules the searches of the user table.
+ * <p>
+ * Keystrokes are coalesced: a search only starts once no new text was
+ * scheduled for the debounce window. The matching rows are then resolved by
+ * {@link UserTableModel#searchFilter(String)} on a background thread, so the
+ * Event Dispatch Thread (EDT) never waits for a search. When a newer text
+ * arrives, the running search is cancelled and its result is never applied.
+ * Only the result of the latest text is handed to the callback, on the EDT.
+ * </p>
+ *
+ * <p>
+ * The filter of a search stays correct if rows are added, updated or removed
+ * while it runs or after it was applied, so a search only has to be started
+ * again with {@link #searchAgain()} when the table is loaded again.
+ * </p>
+ *
+ * <p>
+ * Searches are timed in the <code>users.search</code> timer of
+ * {@link Metrics}, and cancelled searches are counted.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserSearchScheduler {
+
+    /**
+     * The default debounce window in milliseconds.
+     */
+    public static final int DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private final UserTableModel tableModel;
+    private final BiConsumer<String, RowFilter<UserTableModel, Integer>> onResult;
+    private final Timer debounceTimer;
+
+    private String pendingText = "";
+    private SwingWorker<RowFilter<UserTableModel, Integer>, Void> runningSearch;
+
+    /**
+     * Creates a search scheduler.
+     *
+     * @param tableModel The model to search.
+     * @param debounceMillis The debounce window in milliseconds.
+     * @param onResult Called on the EDT with the search text and the filter
+     * of the matching rows, or with a {@code null} filter if the text is
+     * empty.
+     */
+    public UserSearchScheduler(UserTableModel tableModel, int debounceMillis, BiConsumer<String, RowFilter<UserTableModel, Integer>> onResult) {
+        this.tableModel = tableModel;
+        this.onResult = onResult;
+        this.debounceTimer = new Timer(debounceMillis, e -> startSearch());
+        this.debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Schedules a search for the given text. Must be called on the EDT. An
+     * empty text clears the search right away, and the same text as the last
+     * scheduled one (e.g. after an arrow key) is ignored.
+     *
+     * @param text The search text.
+     */
+    public void schedule(String text) {
+        if (text.equals(pendingText)) {
+            return;
+        }
+        pendingText = text;
+        cancelRunningSearch();
+
+        if (text.isEmpty()) {
+            debounceTimer.stop();
+            onResult.accept(text, null);
+        } else {
+            debounceTimer.restart();
+        }
+    }
+
+    /**
+     * Searches the last scheduled text again right away, if it is not empty.
+     * Must be called on the EDT after the table was loaded again, since the
+     * filter of a search only refers to the rows of the table it was made
+     * for.
+     */
+    public void searchAgain() {
+        cancelRunningSearch();
+        if (!pendingText.isEmpty()) {
+            debounceTimer.stop();
+            startSearch();
+        }
+    }
+
+    /**
+     * Cancels the pending and running searches without applying any result.
+     */
+    public void cancel() {
+        debounceTimer.stop();
+        cancelRunningSearch();
+        pendingText = "";
+    }
+
+    private void cancelRunningSearch() {
+        if (runningSearch != null) {
+            Metrics.counter("users.search.cancelled").increment();
+            runningSearch.cancel(true);
+            runningSearch = null;
+        }
+    }
+
+    private void startSearch() {
+        String text = pendingText;
+
+        SwingWorker<RowFilter<UserTableModel, Integer>, Void> search = new SwingWorker<>() {
+            @Override
+            protected RowFilter<UserTableModel, Integer> doInBackground() {
+                return Metrics.timer("users.search").time(() -> tableModel.searchFilter(text));
+            }
+
+            @Override
+            protected void done() {
+                if (runningSearch != this || isCancelled()) {
+                    return; // A newer search replaced this one
+                }
+                runningSearch = null;
+                try {
+                    onResult.accept(text, get());
+                } catch (CancellationException e) {
+                    // Cancelled after the check above, the result is not needed
+                } catch (ExecutionException e) {
+                    Metrics.error("users.search", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        runningSearch = search;
+        search.execute();
+    }
+}
@@ -0,0 +1,185 @@
+package components.userManagementUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+import storage.User;
+
+/**
+ * Live statistics of the users shown in the user table.
+ * <p>
+ * The counters are updated as users are added to and removed from the
+ * {@link UserTableModel}, so the totals never require walking the table
+ * again:
+ * </p>
+ * <ul>
+ * <li>Total number of users.</li>
+ * <li>Number of users per role (case-insensitive).</li>
+ * <li>Number of signups per day, from the CreatedAt column.</li>
+ * </ul>
+ * <p>
+ * Registered {@link ChangeListener}s are notified once per change (a whole
+ * chunk of added users counts as one change), on the thread that changed the
+ * model (the Event Dispatch Thread).
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class UserStatistics {
+
+    private final Map<String, int[]> roleCounts = new HashMap<>();
+    private final TreeMap<String, int[]> signupsPerDay = new TreeMap<>();
+    private final EventListenerList listeners = new EventListenerList();
+    private int total;
+
+    /**
+     * @return The total number of users.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The number of users with the admin role.
+     */
+    public int getAdminCount() {
+        return getRoleCount("admin");
+    }
+
+    /**
+     * @return The number of users with the member role.
+     */
+    public int getMemberCount() {
+        return getRoleCount("member");
+    }
+
+    /**
+     * Returns the number of users with the given role.
+     *
+     * @param role The role (case-insensitive).
+     * @return The number of users with this role.
+     */
+    public int getRoleCount(String role) {
+        int[] count = roleCounts.get(role.toLowerCase(Locale.ROOT));
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Returns the number of signups per day, ordered by day. Days without
+     * signups are not included.
+     *
+     * @return An unmodifiable map of day (yyyy-MM-dd) to number of signups.
+     */
+    public NavigableMap<String, Integer> getSignupsPerDay() {
+        TreeMap<String, Integer> copy = new TreeMap<>();
+        for (Map.Entry<String, int[]> entry : signupsPerDay.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return Collections.unmodifiableNavigableMap(copy);
+    }
+
+    /**
+     * Counts users that were added to the table.
+     *
+     * @param users The added users.
+     */
+    void addAll(List<User> users) {
+        for (User user : users) {
+            count(user, 1);
+        }
+        fireStateChanged();
+    }
+
+    /**
+     * Counts a user that was added to the table.
+     *
+     * @param user The added user.
+     */
+    void add(User user) {
+        count(user, 1);
+        fireStateChanged();
+    }
+
+    /**
+     * Counts a user that was removed from the table.
+     *
+     * @param user The removed user.
+     */
+    void remove(User user) {
+        count(user, -1);
+        fireStateChanged();
+    }
+
+    /**
+     * Counts a user of the table that was replaced with new details.
+     *
+     * @param previous The details before the change.
+     * @param user The details after the change.
+     */
+    void replace(User previous, User user) {
+        count(previous, -1);
+        count(user, 1);
+        fireStateChanged();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    void clear() {
+        roleCounts.clear();
+        signupsPerDay.clear();
+        total = 0;
+        fireStateChanged();
+    }
+
+    private void count(User user, int delta) {
+        total += delta;
+        String role = user.role() == null ? "" : user.role().toLowerCase(Locale.ROOT);
+        adjust(roleCounts, role, delta);
+        if (user.createdAt() != null) {
+            adjust(signupsPerDay, user.createdAt(), delta);
+        }
+    }
+
+    private static void adjust(Map<String, int[]> counts, String key, int delta) {
+        int[] count = counts.computeIfAbsent(key, k -> new int[1]);
+        count[0] += delta;
+        if (count[0] <= 0) {
+            counts.remove(key);
+        }
+    }
+
+    /**
+     * Registers a listener that is notified every time the statistics change.
+     *
+     * @param listener The listener to add.
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(ChangeListener.class, listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addChangeListener(ChangeListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(ChangeListener.class, listener);
+    }
+
+    private void fireStateChanged() {
+        ChangeEvent event = new ChangeEvent(this);
+        for (ChangeListener listener : listeners.getListeners(ChangeListener.class)) {
+            listener.stateChanged(event);
+        }
+    }
+}
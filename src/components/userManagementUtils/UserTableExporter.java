@@ -0,0 +1,300 @@
+package components.userManagementUtils;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.event.RowSorterListener;
+import javax.swing.event.TableModelListener;
+import metrics.Metrics;
+import storage.User;
+
+/**
+ * Exports the rows of the user table, as they are shown (filtered by the
+ * search and sorted), to a CSV or JSON Lines file on a background thread.
+ * <p>
+ * The rows are not copied into a list first. The exporter walks the view of
+ * the table in chunks of {@value #CHUNK_SIZE} rows: each chunk is resolved
+ * on the Event Dispatch Thread (EDT) through
+ * {@link JTable#convertRowIndexToModel(int)} into an array of user
+ * references that is reused for every chunk, and then encoded on the
+ * background thread into a single {@link ByteBuffer} that is written to a
+ * {@link FileChannel} whenever it is full. The memory used is the same for a
+ * table of a hundred rows and a table of a million.
+ * </p>
+ * <p>
+ * The Password column is masked in the table, so it is not exported. If the
+ * rows, the search or the sort of the table change while exporting, the
+ * export fails instead of writing a mix of two views. A failed or cancelled
+ * export deletes the partial file.
+ * </p>
+ * <p>
+ * The progress (0-100) is reported through {@link #setProgress(int)}, and
+ * the time of an export is recorded in the <code>users.export</code> timer
+ * of {@link Metrics}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserTableExporter extends SwingWorker<Integer, Void> {
+
+    /**
+     * The file formats of an export.
+     */
+    public enum Format {
+        /**
+         * A header line followed by one comma separated line per user.
+         */
+        CSV,
+        /**
+         * One JSON object per line.
+         */
+        JSON_LINES
+    }
+
+    static final int CHUNK_SIZE = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JTable table;
+    private final UserTableModel tableModel;
+    private final Path target;
+    private final Format format;
+    private final Consumer<UserTableExporter> onFinished;
+    private final int rowCount;
+    private final User[] chunk = new User[CHUNK_SIZE];
+    private final StringBuilder line = new StringBuilder(256);
+    private final RowSorterListener sorterListener = e -> viewChanged = true;
+    private final TableModelListener modelListener = e -> viewChanged = true;
+    private final RowSorter<?> sorter;
+    private volatile boolean viewChanged;
+
+    /**
+     * Creates an exporter of the rows currently shown in a table. Must be
+     * called on the EDT.
+     *
+     * @param table The user table.
+     * @param tableModel The model of the user table.
+     * @param target The file to write. It is replaced if it exists.
+     * @param format The format of the file.
+     * @param onFinished Called on the EDT with this exporter when the export
+     * finished, failed or was cancelled.
+     */
+    public UserTableExporter(JTable table, UserTableModel tableModel, Path target, Format format, Consumer<UserTableExporter> onFinished) {
+        this.table = table;
+        this.tableModel = tableModel;
+        this.target = target;
+        this.format = format;
+        this.onFinished = onFinished;
+        this.rowCount = table.getRowCount();
+        this.sorter = table.getRowSorter();
+
+        tableModel.addTableModelListener(modelListener);
+        if (sorter != null) {
+            sorter.addRowSorterListener(sorterListener);
+        }
+    }
+
+    /**
+     * @return The file of this export.
+     */
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Writes the rows of the table to the target file. If the export fails
+     * or is cancelled, the partial file is deleted.
+     *
+     * @return The number of exported users.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalStateException If the table changed during the export.
+     */
+    @Override
+    protected Integer doInBackground() throws IOException, InterruptedException {
+        long start = Metrics.timer("users.export").start();
+        boolean completed = false;
+        try {
+            int exported = writeRows();
+            completed = !isCancelled();
+            Metrics.counter("users.export.rows").add(exported);
+            return exported;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(target);
+            }
+            Metrics.timer("users.export").stop(start);
+        }
+    }
+
+    private int writeRows() throws IOException, InterruptedException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == Format.CSV) {
+                line.append("Username,Email,Role,CreatedAt\n");
+                write(channel, encoder, buffer);
+            }
+
+            int exported = 0;
+            while (exported < rowCount && !isCancelled()) {
+                int from = exported;
+                int size = Math.min(CHUNK_SIZE, rowCount - from);
+                try {
+                    SwingUtilities.invokeAndWait(() -> resolveChunk(from, size));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+                }
+
+                for (int i = 0; i < size; i++) {
+                    appendRow(chunk[i]);
+                    chunk[i] = null;
+                    write(channel, encoder, buffer);
+                }
+                exported += size;
+                setProgress((int) (exported * 100L / rowCount));
+            }
+
+            flush(channel, buffer);
+            return exported;
+        }
+    }
+
+    /**
+     * Resolves a chunk of view rows to their users. Runs on the EDT, where
+     * the view of the table cannot change while it runs.
+     */
+    private void resolveChunk(int from, int size) {
+        if (viewChanged || table.getRowCount() != rowCount) {
+            throw new IllegalStateException("The user table changed during the export. Please try again.");
+        }
+        for (int i = 0; i < size; i++) {
+            chunk[i] = tableModel.getUserAt(table.convertRowIndexToModel(from + i));
+        }
+    }
+
+    /**
+     * Formats a user into the reused line builder.
+     */
+    private void appendRow(User user) {
+        if (format == Format.CSV) {
+            appendCsv(user.username()).append(',');
+            appendCsv(user.email()).append(',');
+            appendCsv(user.role()).append(',');
+            appendCsv(user.createdAt()).append('\n');
+        } else {
+            line.append("{\"username\":");
+            appendJson(user.username()).append(",\"email\":");
+            appendJson(user.email()).append(",\"role\":");
+            appendJson(user.role()).append(",\"createdAt\":");
+            appendJson(user.createdAt()).append("}\n");
+        }
+    }
+
+    /**
+     * Encodes the line builder into the buffer, writing the buffer to the
+     * channel whenever it is full, and clears the line builder.
+     */
+    private void write(FileChannel channel, CharsetEncoder encoder, ByteBuffer buffer) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        CoderResult result;
+        while ((result = encoder.encode(chars, buffer, true)).isOverflow()) {
+            flush(channel, buffer);
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        encoder.reset();
+        line.setLength(0);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Appends a CSV field, quoted if it contains a comma, a quote or a line
+     * separator.
+     */
+    private StringBuilder appendCsv(String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    /**
+     * Appends a JSON string, or {@code null}.
+     */
+    private StringBuilder appendJson(String value) {
+        if (value == null) {
+            return line.append("null");
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        return line.append('"');
+    }
+
+    @Override
+    protected void done() {
+        tableModel.removeTableModelListener(modelListener);
+        if (sorter != null) {
+            sorter.removeRowSorterListener(sorterListener);
+        }
+        if (isCancelled()) {
+            Metrics.counter("users.export.cancelled").increment();
+        }
+        onFinished.accept(this);
+    }
+}
@@ -0,0 +1,177 @@
+package components.userManagementUtils;
+
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.SwingWorker;
+import metrics.Metrics;
+import storage.User;
+import storage.UserRepository;
+
+/**
+ * Loads the users into the {@link UserTableModel} on a background thread.
+ * <p>
+ * The repositories are read in {@link #doInBackground()}, off the Event
+ * Dispatch Thread (EDT), and the users are handed to the EDT in chunks with
+ * {@link #publish(Object[])}. Each chunk is appended to the model with a
+ * single rows-inserted event, so the first rows show up right away and the
+ * table keeps filling while the rest is being published. The first chunk is
+ * kept small to show the first rows as soon as possible.
+ * </p>
+ * <p>
+ * The loading progress (0-100) is reported through
+ * {@link #setProgress(int)}, and a load can be stopped with {@link #stop()}.
+ * Chunks that arrive after a stop are ignored.
+ * </p>
+ * <p>
+ * The time until the first rows are shown and until all rows are loaded is
+ * recorded in the <code>users.load.firstRows</code> and
+ * <code>users.load</code> timers of {@link Metrics}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserTableLoader extends SwingWorker<Void, UserTableLoader.Chunk> {
+
+    private static final int FIRST_CHUNK_SIZE = 200;
+    private static final int CHUNK_SIZE = 5000;
+
+    private final UserTableModel tableModel;
+    private final UserRepository members;
+    private final UserRepository admins;
+    private final Consumer<UserTableLoader> onFinished;
+    private final long start = Metrics.timer("users.load").start();
+    private boolean shownFirstRows;
+    private volatile int publishedChunks;
+    private int processedChunks;
+    private boolean finished;
+    private boolean reportedFinished;
+    private volatile boolean stopped;
+
+    /**
+     * A chunk of users published to the EDT.
+     *
+     * @param admin {@code true} if the users are admin users.
+     * @param users The users of this chunk.
+     */
+    record Chunk(boolean admin, List<User> users) {
+
+    }
+
+    /**
+     * Creates a loader. The model is cleared when the loader is executed.
+     *
+     * @param tableModel The model to fill.
+     * @param members The repository of the member users.
+     * @param admins The repository of the admin users.
+     * @param onFinished Called on the EDT with this loader when loading
+     * finished, after every published chunk was processed, or when it was
+     * stopped.
+     */
+    public UserTableLoader(UserTableModel tableModel, UserRepository members, UserRepository admins, Consumer<UserTableLoader> onFinished) {
+        this.tableModel = tableModel;
+        this.members = members;
+        this.admins = admins;
+        this.onFinished = onFinished;
+        tableModel.clear();
+    }
+
+    @Override
+    protected Void doInBackground() {
+        List<User> memberUsers = members.findAll();
+        List<User> adminUsers = admins.findAll();
+        int total = memberUsers.size() + adminUsers.size();
+
+        int published = publishChunks(false, memberUsers, 0, total);
+        publishChunks(true, adminUsers, published, total);
+        return null;
+    }
+
+    /**
+     * Publishes the users in chunks until all of them are published or the
+     * loader is cancelled.
+     *
+     * @return The number of users published so far.
+     */
+    private int publishChunks(boolean admin, List<User> users, int published, int total) {
+        int start = 0;
+        while (start < users.size() && !stopped) {
+            int size = published == 0 ? FIRST_CHUNK_SIZE : CHUNK_SIZE;
+            int end = Math.min(start + size, users.size());
+            publishedChunks++; // Only written by the background thread
+            publish(new Chunk(admin, users.subList(start, end)));
+            published += end - start;
+            start = end;
+            setProgress((int) (published * 100L / total));
+        }
+        return published;
+    }
+
+    /**
+     * Stops the loader. Unlike {@link #cancel(boolean)}, which does nothing
+     * once the background thread returned, this also drops the chunks that
+     * were published but not yet added to the model. The background thread
+     * is not interrupted, since it could be reading the data files.
+     * <p>
+     * Must be called on the EDT.
+     * </p>
+     */
+    public void stop() {
+        stopped = true;
+        cancel(false);
+        reportFinished();
+    }
+
+    /**
+     * @return {@code true} if the loader was stopped with {@link #stop()}.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @Override
+    protected void process(List<Chunk> chunks) {
+        if (stopped) {
+            return;
+        }
+        if (!shownFirstRows) {
+            shownFirstRows = true;
+            Metrics.timer("users.load.firstRows").stop(start);
+        }
+        for (Chunk chunk : chunks) {
+            if (chunk.admin()) {
+                tableModel.appendAdmins(chunk.users());
+            } else {
+                tableModel.appendMembers(chunk.users());
+            }
+        }
+        processedChunks += chunks.size();
+        if (finished) {
+            reportFinished();
+        }
+    }
+
+    @Override
+    protected void done() {
+        finished = true;
+        reportFinished();
+    }
+
+    /**
+     * Calls {@code onFinished} once the loader is done and every published
+     * chunk was added to the model, or right away if it was stopped.
+     */
+    private void reportFinished() {
+        if (reportedFinished || (!stopped && (!finished || processedChunks < publishedChunks))) {
+            return;
+        }
+        reportedFinished = true;
+        if (stopped) {
+            Metrics.counter("users.load.cancelled").increment();
+        } else {
+            Metrics.timer("users.load").stop(start);
+        }
+        onFinished.accept(this);
+    }
+}
@@ -0,0 +1,381 @@
+package components.userManagementUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import javax.swing.RowFilter;
+import javax.swing.table.AbstractTableModel;
+import storage.User;
+
+/**
+ * The table model of the user table in the UserManagement screen.
+ * <p>
+ * Instead of copying every user into a {@code Vector} row like
+ * {@code DefaultTableModel}, this model only keeps references to the typed
+ * user records served by the repositories. A cell is only resolved when the
+ * table asks for it (the rows in the viewport when painting), and appending
+ * a chunk of users fires a single table event instead of one event per
+ * row.
+ * </p>
+ * <p>
+ * The member users are shown first, followed by the admin users, so a
+ * member row in the model has the same index as the user in the member
+ * repository.
+ * </p>
+ * <p>
+ * Every row is also indexed in a {@link UserSearchIndex}, which is kept in
+ * sync as rows are added, so {@link #search(String)} can resolve a search
+ * text to the matching rows without scanning every cell. The model is
+ * changed on the Event Dispatch Thread (EDT), while searches may run on a
+ * background thread. Changes hold the lock of the index, while a search
+ * only holds it to prepare a snapshot of the index and runs outside it, so a
+ * long search never blocks the EDT. The role and signup counters of {@link #getStatistics()} are updated the same way.
+ * </p>
+ * <p>
+ * Single members can be inserted, updated and removed with
+ * {@link #insertMembers(int, List)}, {@link #updateMember(int, User)} and
+ * {@link #removeMember(int)}, which only fire an event for the changed rows,
+ * so the table keeps its selection, scroll position and sort. A search
+ * filter made by {@link #searchFilter(String)} stays correct through these
+ * changes, since it refers to the search index documents of the rows
+ * instead of the row numbers.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class UserTableModel extends AbstractTableModel {
+
+    /**
+     * The column names of the user table.
+     */
+    public static final String[] COLUMN_NAMES = {"Username", "Email", "Password", "Role", "CreatedAt"};
+
+    /**
+     * The search index is rebuilt once it holds more removed documents than
+     * rows, but not before this many were removed.
+     */
+    private static final int MIN_REINDEX_DELETED = 1024;
+
+    private final List<User> members = new ArrayList<>();
+    private final List<User> admins = new ArrayList<>();
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+    private final UserStatistics statistics = new UserStatistics();
+    private int[] rowDocIds = new int[64];
+    private boolean[] adminRows = new boolean[64];
+    private volatile int modificationCount;
+    private int indexGeneration;
+
+    /**
+     * Removes all users from the table.
+     */
+    public void clear() {
+        synchronized (searchIndex) {
+            members.clear();
+            admins.clear();
+            searchIndex.clear();
+            indexGeneration++;
+            modificationCount++;
+        }
+        statistics.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Appends member users after the members already in the table.
+     *
+     * @param users The member users to append.
+     */
+    public void appendMembers(List<User> users) {
+        insertMembers(members.size(), users);
+    }
+
+    /**
+     * Inserts member users at a position of the members in the table.
+     *
+     * @param firstRow The row of the first inserted user, at most the number
+     * of members in the table.
+     * @param users The member users to insert.
+     */
+    public void insertMembers(int firstRow, List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        synchronized (searchIndex) {
+            members.addAll(firstRow, users);
+            indexRows(firstRow, users);
+        }
+        statistics.addAll(users);
+        fireTableRowsInserted(firstRow, firstRow + users.size() - 1);
+    }
+
+    /**
+     * Replaces the member user shown at a row.
+     *
+     * @param row The row of the member.
+     * @param user The new details of the member.
+     */
+    public void updateMember(int row, User user) {
+        User previous;
+        synchronized (searchIndex) {
+            previous = members.set(row, user);
+            rowDocIds[row] = searchIndex.update(rowDocIds[row], user);
+            adminRows[row] = user.isAdmin();
+            modificationCount++;
+        }
+        statistics.replace(previous, user);
+        fireTableRowsUpdated(row, row);
+    }
+
+    /**
+     * Removes the member user shown at a row. The rows after it move up by
+     * one.
+     *
+     * @param row The row of the member.
+     */
+    public void removeMember(int row) {
+        User previous;
+        synchronized (searchIndex) {
+            previous = members.remove(row);
+            searchIndex.remove(rowDocIds[row]);
+            System.arraycopy(rowDocIds, row + 1, rowDocIds, row, getRowCount() - row);
+            System.arraycopy(adminRows, row + 1, adminRows, row, getRowCount() - row);
+            modificationCount++;
+            if (searchIndex.deletedCount() > Math.max(getRowCount(), MIN_REINDEX_DELETED)) {
+                reindex();
+            }
+        }
+        statistics.remove(previous);
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Appends admin users at the end of the table.
+     *
+     * @param users The admin users to append.
+     */
+    public void appendAdmins(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        int firstRow;
+        synchronized (searchIndex) {
+            firstRow = getRowCount();
+            admins.addAll(users);
+            indexRows(firstRow, users);
+        }
+        statistics.addAll(users);
+        fireTableRowsInserted(firstRow, firstRow + users.size() - 1);
+    }
+
+    /**
+     * Returns the live statistics of the users in this model, which are
+     * updated as users are added and removed.
+     *
+     * @return The {@link UserStatistics} of this model.
+     */
+    public UserStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Finds the rows whose Username, Email, Role or CreatedAt contains the
+     * given text (case-insensitive). The Password column is never searched.
+     *
+     * This method may be called from any thread.
+     *
+     * @param text The search text.
+     * @return A {@link BitSet} of the matching model rows.
+     * @throws java.util.concurrent.CancellationException If the searching
+     * thread is interrupted.
+     */
+    public BitSet search(String text) {
+        UserSearchIndex.Search search;
+        int[] docIds;
+        synchronized (searchIndex) {
+            search = searchIndex.prepare(text);
+            docIds = Arrays.copyOf(rowDocIds, getRowCount());
+        }
+        BitSet docs = search.run();
+        BitSet rows = new BitSet(docIds.length);
+        for (int row = 0; row < docIds.length; row++) {
+            UserSearchIndex.checkInterrupted(row);
+            if (docs.get(docIds[row])) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Makes a row filter that only includes the rows whose Username, Email,
+     * Role or CreatedAt contains the given text (case-insensitive).
+     * <p>
+     * The filter remembers the matching search index documents, not the
+     * matching rows, so it stays correct when rows are inserted, updated or
+     * removed afterwards: the documents indexed after the search are checked
+     * against the text one by one, when the table asks for them.
+     * </p>
+     *
+     * This method may be called from any thread. The filter must be used on
+     * the EDT.
+     *
+     * @param text The search text.
+     * @return The filter of the matching rows.
+     * @throws java.util.concurrent.CancellationException If the searching
+     * thread is interrupted.
+     */
+    public RowFilter<UserTableModel, Integer> searchFilter(String text) {
+        UserSearchIndex.Search search;
+        int docLimit;
+        int generation;
+        synchronized (searchIndex) {
+            search = searchIndex.prepare(text);
+            docLimit = searchIndex.nextDocId();
+            generation = indexGeneration;
+        }
+        return new SearchFilter(UserSearchIndex.normalize(text), search.run(), docLimit, generation);
+    }
+
+    /**
+     * Returns a counter that changes every time rows are added, updated or
+     * removed, so a search result of {@link #search(String)} computed in the
+     * background can be checked against the current rows before it is
+     * applied.
+     *
+     * @return The modification counter of the model.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Indexes rows that were inserted at {@code firstRow}, shifting the
+     * document ids and role flags of the rows after them.
+     */
+    private void indexRows(int firstRow, List<User> users) {
+        int oldRowCount = getRowCount() - users.size();
+        if (getRowCount() > rowDocIds.length) {
+            rowDocIds = Arrays.copyOf(rowDocIds, Math.max(getRowCount(), rowDocIds.length * 2));
+            adminRows = Arrays.copyOf(adminRows, rowDocIds.length);
+        }
+        System.arraycopy(rowDocIds, firstRow, rowDocIds, firstRow + users.size(), oldRowCount - firstRow);
+        System.arraycopy(adminRows, firstRow, adminRows, firstRow + users.size(), oldRowCount - firstRow);
+        for (int i = 0; i < users.size(); i++) {
+            rowDocIds[firstRow + i] = searchIndex.add(users.get(i));
+            adminRows[firstRow + i] = users.get(i).isAdmin();
+        }
+        modificationCount++;
+    }
+
+    /**
+     * Rebuilds the search index from the rows, dropping the documents of
+     * removed users. Callers must hold the lock of the index.
+     */
+    private void reindex() {
+        searchIndex.clear();
+        indexGeneration++;
+        for (int row = 0; row < getRowCount(); row++) {
+            rowDocIds[row] = searchIndex.add(getUserAt(row));
+        }
+    }
+
+    /**
+     * The row filter of {@link #searchFilter(String)}.
+     */
+    private final class SearchFilter extends RowFilter<UserTableModel, Integer> {
+
+        private final String query;
+        private final BitSet matchingDocs;
+        private final int docLimit;
+        private final int generation;
+
+        SearchFilter(String query, BitSet matchingDocs, int docLimit, int generation) {
+            this.query = query;
+            this.matchingDocs = matchingDocs;
+            this.docLimit = docLimit;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean include(Entry<? extends UserTableModel, ? extends Integer> entry) {
+            int doc = rowDocIds[entry.getIdentifier()];
+            if (generation == indexGeneration && doc < docLimit) {
+                return matchingDocs.get(doc);
+            }
+            return searchIndex.matches(doc, query); // Indexed after the search
+        }
+    }
+
+    /**
+     * Returns the user shown at the given model row.
+     *
+     * @param row The model row index.
+     * @return The {@code User} of this row.
+     */
+    public User getUserAt(int row) {
+        return row < members.size() ? members.get(row) : admins.get(row - members.size());
+    }
+
+    /**
+     * Checks if the user shown at the given model row has the admin role.
+     * The flag is computed once when the row is added or updated, so the
+     * renderer can check it for every painted cell.
+     *
+     * @param row The model row index.
+     * @return {@code true} if the user of this row is an admin.
+     */
+    public boolean isAdminRow(int row) {
+        return adminRows[row];
+    }
+
+    /**
+     * Returns the index of the user in the member repository.
+     *
+     * @param row The model row index.
+     * @return The member index, or {@code -1} if the row is an admin user.
+     */
+    public int getMemberIndex(int row) {
+        return row < members.size() ? row : -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return members.size() + admins.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        User user = getUserAt(row);
+        return switch (column) {
+            case 0 -> user.username();
+            case 1 -> user.email();
+            case 2 -> user.password();
+            case 3 -> user.role();
+            case 4 -> user.createdAt();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,293 @@
+package config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import metrics.Metrics;
+import storage.StorageBackend;
+
+/**
+ * The configuration of the application: where the data files are stored,
+ * which {@link StorageBackend} stores the users and whether the window
+ * builds its pages ahead of time.
+ * <p>
+ * Every setting is read from the first of these sources that has it:
+ * </p>
+ * <ol>
+ * <li>A command line argument of {@code Main}, e.g.
+ * <code>--data.dir=/mnt/nvme/rusbyte</code>.</li>
+ * <li>A system property, prefixed with <code>rusbyte.</code>, e.g.
+ * <code>-Drusbyte.data.dir=/mnt/nvme/rusbyte</code>.</li>
+ * <li>A properties file, given with <code>--config=file</code> or
+ * <code>-Drusbyte.config=file</code>, otherwise
+ * <code>./rusbyte.properties</code> if it exists.</li>
+ * <li>The default, which is the location the application always used.</li>
+ * </ol>
+ * <table>
+ * <caption>Settings</caption>
+ * <tr><th>Key</th><th>Default</th></tr>
+ * <tr><td><code>data.dir</code></td><td><code>./src</code></td></tr>
+ * <tr><td><code>admins.file</code></td><td><code>data/users.txt</code></td></tr>
+ * <tr><td><code>members.file</code></td><td><code>data/userManagement/manageableUsers.txt</code></td></tr>
+ * <tr><td><code>session.file</code></td><td><code>auth/loginSession/userSession.txt</code></td></tr>
+ * <tr><td><code>sessions.file</code></td><td><code>auth/loginSession/sessions.txt</code></td></tr>
+ * <tr><td><code>penalty.file</code></td><td><code>components/LoginUtils/storedTimePenalty.txt</code></td></tr>
+ * <tr><td><code>diagnostics.dir</code></td><td><code>data/diagnostics</code></td></tr>
+ * <tr><td><code>storage.backend</code></td><td>The backend of both repositories:
+ * <code>csv</code>, <code>journaled</code> or <code>binary</code>.</td></tr>
+ * <tr><td><code>admins.backend</code></td><td><code>storage.backend</code>, otherwise <code>csv</code></td></tr>
+ * <tr><td><code>members.backend</code></td><td><code>storage.backend</code>, otherwise <code>journaled</code></td></tr>
+ * <tr><td><code>ui.prewarm</code></td><td><code>true</code>: the window builds the
+ * next likely page while the current one is shown (the user management
+ * page only for an authenticated session).</td></tr>
+ * </table>
+ * <p>
+ * Relative file and directory settings are resolved against
+ * <code>data.dir</code>, so moving all data to another volume only takes
+ * <code>--data.dir</code>.
+ * </p>
+ * <p>
+ * The configuration is set once by {@code Main} through
+ * {@link #initialize(String[])}, before the data files are first used, and
+ * read everywhere else through {@link #current()}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class AppConfig {
+
+    /**
+     * The properties file read when no other file is given.
+     */
+    public static final String DEFAULT_CONFIG_FILE = "rusbyte.properties";
+
+    private static final String SYSTEM_PROPERTY_PREFIX = "rusbyte.";
+    private static final String CONFIG_KEY = "config";
+
+    private static final Properties DEFAULTS = new Properties();
+
+    static {
+        DEFAULTS.setProperty("data.dir", "./src");
+        DEFAULTS.setProperty("admins.file", "data/users.txt");
+        DEFAULTS.setProperty("members.file", "data/userManagement/manageableUsers.txt");
+        DEFAULTS.setProperty("session.file", "auth/loginSession/userSession.txt");
+        DEFAULTS.setProperty("sessions.file", "auth/loginSession/sessions.txt");
+        DEFAULTS.setProperty("penalty.file", "components/LoginUtils/storedTimePenalty.txt");
+        DEFAULTS.setProperty("diagnostics.dir", "data/diagnostics");
+        DEFAULTS.setProperty("ui.prewarm", "true");
+    }
+
+    private static AppConfig current;
+
+    private final Properties settings;
+    private final Path dataDirectory;
+
+    private AppConfig(Properties settings) {
+        this.settings = settings;
+        this.dataDirectory = Path.of(settings.getProperty("data.dir"));
+        adminsBackend(); // Fails early on an unknown backend.
+        membersBackend();
+    }
+
+    /**
+     * Loads the configuration of the application from the command line
+     * arguments, the system properties and the properties file, and makes it
+     * the {@link #current()} configuration. Must be called before the data
+     * files are first used.
+     *
+     * @param args The command line arguments. Arguments that are not
+     * <code>--key=value</code> settings are ignored.
+     * @return The configuration.
+     * @throws IllegalArgumentException If the properties file cannot be read
+     * or a setting is invalid.
+     */
+    public static synchronized AppConfig initialize(String[] args) {
+        current = load(args);
+        return current;
+    }
+
+    /**
+     * @return The configuration of the application. If {@link #initialize}
+     * was not called, it is loaded from the system properties and the
+     * properties file.
+     */
+    public static synchronized AppConfig current() {
+        if (current == null) {
+            current = load(new String[0]);
+        }
+        return current;
+    }
+
+    /**
+     * Loads a configuration without making it the current one.
+     *
+     * @param args The command line arguments.
+     * @return The configuration.
+     * @throws IllegalArgumentException If the properties file cannot be read
+     * or a setting is invalid.
+     */
+    public static AppConfig load(String[] args) {
+        Properties arguments = new Properties();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (arg.startsWith("--") && separator > 2) {
+                arguments.setProperty(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        Properties system = new Properties();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PROPERTY_PREFIX)) {
+                system.setProperty(name.substring(SYSTEM_PROPERTY_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        String configFile = arguments.getProperty(CONFIG_KEY, system.getProperty(CONFIG_KEY));
+        Properties settings = new Properties();
+        settings.putAll(DEFAULTS);
+        settings.putAll(readConfigFile(configFile));
+        settings.putAll(system);
+        settings.putAll(arguments);
+        return new AppConfig(settings);
+    }
+
+    private static Properties readConfigFile(String configFile) {
+        Path file = Path.of(configFile != null ? configFile : DEFAULT_CONFIG_FILE);
+        Properties properties = new Properties();
+        if (configFile == null && !Files.isRegularFile(file)) {
+            return properties;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the configuration file " + file + ".", e);
+        }
+        return properties;
+    }
+
+    /**
+     * Creates the directories of the data files that do not exist yet, so
+     * the application can start on an empty data directory.
+     */
+    public void createDirectories() {
+        for (String location : new String[]{adminsFile(), membersFile(), sessionFile(), sessionStoreFile(), penaltyFile()}) {
+            Path parent = Path.of(location).getParent();
+            if (parent != null) {
+                try {
+                    Files.createDirectories(parent);
+                } catch (IOException e) {
+                    Metrics.error("config.directories", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the data files of the admins and the members are in the
+     * format of their configured {@link StorageBackend}, so a backend setting
+     * alone never makes the application overwrite a file it cannot read.
+     *
+     * @throws IllegalArgumentException If a data file is in another format
+     * than its backend.
+     */
+    public void checkStorageFormats() {
+        adminsBackend().checkFormat(adminsFile());
+        membersBackend().checkFormat(membersFile());
+    }
+
+    /**
+     * Returns a setting, or {@code null} if it is not set.
+     *
+     * @param key The key of the setting, e.g. <code>data.dir</code>.
+     * @return The value of the setting.
+     */
+    public String get(String key) {
+        return settings.getProperty(key);
+    }
+
+    /**
+     * @return The directory the relative data locations are resolved against.
+     */
+    public String dataDirectory() {
+        return dataDirectory.toString();
+    }
+
+    /**
+     * @return The data file of the admin users.
+     */
+    public String adminsFile() {
+        return location("admins.file");
+    }
+
+    /**
+     * @return The data file of the member users.
+     */
+    public String membersFile() {
+        return location("members.file");
+    }
+
+    /**
+     * @return The file of the session token of the admin logged in to the
+     * application window.
+     */
+    public String sessionFile() {
+        return location("session.file");
+    }
+
+    /**
+     * @return The file of the {@code auth.SessionStore}.
+     */
+    public String sessionStoreFile() {
+        return location("sessions.file");
+    }
+
+    /**
+     * @return The file of the remaining login time penalty.
+     */
+    public String penaltyFile() {
+        return location("penalty.file");
+    }
+
+    /**
+     * @return The directory the diagnostics dumps are saved to.
+     */
+    public String diagnosticsDirectory() {
+        return location("diagnostics.dir");
+    }
+
+    /**
+     * @return The storage backend of the admin users.
+     */
+    public StorageBackend adminsBackend() {
+        return backend("admins.backend", StorageBackend.CSV);
+    }
+
+    /**
+     * @return The storage backend of the member users.
+     */
+    public StorageBackend membersBackend() {
+        return backend("members.backend", StorageBackend.JOURNALED);
+    }
+
+    /**
+     * @return {@code true} if the application window builds the next likely
+     * page before it is opened.
+     */
+    public boolean prewarmPages() {
+        return Boolean.parseBoolean(settings.getProperty("ui.prewarm").trim());
+    }
+
+    private StorageBackend backend(String key, StorageBackend defaultBackend) {
+        String name = settings.getProperty(key, settings.getProperty("storage.backend"));
+        return name != null ? StorageBackend.parse(name) : defaultBackend;
+    }
+
+    private String location(String key) {
+        return dataDirectory.resolve(settings.getProperty(key)).toString();
+    }
+}
@@ -0,0 +1,43 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe counter of events, such as failed logins or cancelled
+ * searches. Increments from many threads do not contend on a single value.
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Counts one event.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Counts a number of events.
+     *
+     * @param events The number of events.
+     */
+    public void add(long events) {
+        count.add(events);
+    }
+
+    /**
+     * @return The number of events counted since the last reset.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
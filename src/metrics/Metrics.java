@@ -0,0 +1,162 @@
+package metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the shared metrics of the application: named
+ * {@link Counter}s, {@link OperationTimer}s and {@link LatencyHistogram}s,
+ * created on first use.
+ * <p>
+ * Errors that the application swallows (for example a session file that
+ * cannot be written) are reported with {@link #error(String, Throwable)}, so
+ * they are counted and the most recent ones are kept with their message.
+ * </p>
+ * <p>
+ * The metrics are shown by the hidden diagnostics page (Ctrl+Shift+D) and can
+ * be written to a file with {@link #dump(File)}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class Metrics {
+
+    private static final int MAX_RECENT_ERRORS = 50;
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, OperationTimer> timers = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final Deque<String> recentErrors = new ArrayDeque<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @param name The name of the counter (e.g. <code>auth.login.failure</code>).
+     * @return The shared counter with this name.
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @param name The name of the timer (e.g. <code>users.load</code>).
+     * @return The shared timer with this name.
+     */
+    public static OperationTimer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new OperationTimer());
+    }
+
+    /**
+     * @param name The name of the histogram.
+     * @return The shared histogram with this name.
+     */
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Reports an error that was handled without telling the user. It is
+     * counted in the <code>errors.&lt;name&gt;</code> counter and kept in the
+     * list of recent errors.
+     *
+     * @param name The name of the failed operation.
+     * @param error The error.
+     */
+    public static void error(String name, Throwable error) {
+        counter("errors." + name).increment();
+        String entry = LocalDateTime.now().withNano(0) + " " + name + ": " + error;
+        synchronized (recentErrors) {
+            if (recentErrors.size() == MAX_RECENT_ERRORS) {
+                recentErrors.removeFirst();
+            }
+            recentErrors.addLast(entry);
+        }
+    }
+
+    /**
+     * Resets every metric and forgets the recent errors.
+     */
+    public static void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(timer -> timer.getHistogram().reset());
+        histograms.values().forEach(LatencyHistogram::reset);
+        synchronized (recentErrors) {
+            recentErrors.clear();
+        }
+    }
+
+    /**
+     * Formats every metric as plain text: the counters, then the timers and
+     * histograms with their count, mean, percentiles and maximum in
+     * milliseconds, then the recent errors.
+     *
+     * @return The report.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("RusByte Net - User Management metrics, ").append(LocalDateTime.now().withNano(0)).append("\n\n");
+
+        report.append(String.format(Locale.ROOT, "%-36s %12s%n", "Counter", "count"));
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            report.append(String.format(Locale.ROOT, "%-36s %12d%n", entry.getKey(), entry.getValue().getCount()));
+        }
+
+        Map<String, LatencyHistogram> latencies = new TreeMap<>(histograms);
+        timers.forEach((name, timer) -> latencies.put(name, timer.getHistogram()));
+        report.append(String.format(Locale.ROOT, "%n%-36s %9s %10s %10s %10s %10s %10s%n", "Timer (ms)", "count", "mean", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            report.append(String.format(Locale.ROOT, "%-36s %9d %10.3f %10.3f %10.3f %10.3f %10.3f%n", entry.getKey(), histogram.getCount(),
+                    histogram.getMean() / 1e6, histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6, histogram.getMax() / 1e6));
+        }
+
+        report.append("\nRecent errors\n");
+        List<String> errors;
+        synchronized (recentErrors) {
+            errors = new ArrayList<>(recentErrors);
+        }
+        if (errors.isEmpty()) {
+            report.append("None\n");
+        }
+        for (String error : errors) {
+            report.append(error).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the {@link #report()} to a new file in a directory, named after
+     * the current time.
+     *
+     * @param directory The directory of the dump. It is created if missing.
+     * @return The written file, or {@code null} if it could not be written.
+     */
+    public static File dump(File directory) {
+        directory.mkdirs();
+        String name = "metrics-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt";
+        File file = new File(directory, name);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(report());
+            return file;
+        } catch (IOException e) {
+            error("metrics.dump", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Times an operation, such as a login or a file load, into a
+ * {@link LatencyHistogram}.
+ * <pre>
+ * long start = timer.start();
+ * ...
+ * timer.stop(start);
+ * </pre>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class OperationTimer {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * @return The start time to pass to {@link #stop(long)}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since {@code start}.
+     *
+     * @param start The value returned by {@link #start()}.
+     * @return The elapsed time in nanoseconds.
+     */
+    public long stop(long start) {
+        long elapsed = System.nanoTime() - start;
+        histogram.record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Runs and times an operation.
+     *
+     * @param <T> The result type of the operation.
+     * @param operation The operation to time.
+     * @return The result of the operation.
+     */
+    public <T> T time(Supplier<T> operation) {
+        long start = start();
+        try {
+            return operation.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    /**
+     * @return The histogram of the recorded times.
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
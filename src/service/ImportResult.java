@@ -0,0 +1,19 @@
+package service;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of a bulk import of members by
+ * {@link UserService#importMembers(Path, Path, java.util.function.IntConsumer)}.
+ *
+ * @param imported The number of rows that were added as members.
+ * @param rejected The number of rows that were not added.
+ * @param rejectsReport The report that lists the rejected rows, or
+ * {@code null} if no report was written.
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public record ImportResult(int imported, int rejected, Path rejectsReport) {
+}
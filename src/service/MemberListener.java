@@ -0,0 +1,47 @@
+package service;
+
+import java.util.List;
+import storage.User;
+
+/**
+ * Notified by the {@link UserService} after every saved change of the member
+ * repository, so a view of the members can apply the change instead of
+ * reading all members again.
+ * <p>
+ * The positions are the positions in the member repository at the time of
+ * the change. The events are sent in the order of the changes, on the thread
+ * that made the change, while the service still holds its write lock, so a
+ * listener must return quickly (e.g. hand the event over to the Event
+ * Dispatch Thread).
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ * @see UserService#addMemberListener(MemberListener)
+ */
+public interface MemberListener {
+
+    /**
+     * Members were added at the end of the member repository.
+     *
+     * @param firstIndex The position of the first added member.
+     * @param users The added members, in order.
+     */
+    void membersAdded(int firstIndex, List<User> users);
+
+    /**
+     * A member was replaced with new details.
+     *
+     * @param index The position of the member.
+     * @param user The new details of the member.
+     */
+    void memberUpdated(int index, User user);
+
+    /**
+     * A member was deleted. The members after it moved up by one position.
+     *
+     * @param index The former position of the member.
+     */
+    void memberDeleted(int index);
+}
@@ -0,0 +1,608 @@
+package service;
+
+import auth.PasswordHasher;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import metrics.Metrics;
+import service.UserServiceException.Reason;
+import storage.Repositories;
+import storage.User;
+import storage.UserRepository;
+
+/**
+ * The authentication and member management operations of the system,
+ * without any user interface.
+ * <p>
+ * The screens ({@code UserAuthenticator} and {@code UserEditor}) and the
+ * local HTTP API ({@code api.UserApiServer}) share the same
+ * {@link #shared()} instance, so every change goes through the same rules:
+ * the input is checked with {@link UserValidator}, emails must be unique,
+ * and admin users cannot be edited or deleted. The admin passwords are
+ * stored as salted hashes made by the {@link PasswordHasher}.
+ * </p>
+ * <p>
+ * Reads go straight to the repositories, which are safe to use from many
+ * threads. Changes are serialized by a lock, so a member that is looked up
+ * by email is still at the same position when it is updated or deleted. The
+ * lock is a {@link ReentrantLock} instead of {@code synchronized}, so the
+ * virtual threads of the HTTP API can wait for it without blocking their
+ * carrier thread.
+ * </p>
+ * <p>
+ * A refused or failed change throws a {@link UserServiceException} with the
+ * message to show to the user. Every saved change of the members is sent to
+ * the registered {@link MemberListener}s.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserService {
+
+    /**
+     * The number of rows of an import file that are validated together.
+     */
+    static final int IMPORT_CHUNK_ROWS = 10_000;
+
+    private static UserService shared;
+
+    private final UserRepository admins;
+    private final UserRepository members;
+    private final PasswordHasher hasher;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<MemberListener> memberListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a service over the given repositories.
+     *
+     * @param admins The repository of admin users.
+     * @param members The repository of member users.
+     * @param hasher The hasher of the admin passwords.
+     */
+    public UserService(UserRepository admins, UserRepository members, PasswordHasher hasher) {
+        this.admins = admins;
+        this.members = members;
+        this.hasher = hasher;
+    }
+
+    /**
+     * @return The service over the shared {@link Repositories}.
+     */
+    public static synchronized UserService shared() {
+        if (shared == null) {
+            shared = new UserService(Repositories.admins(), Repositories.members(), PasswordHasher.shared());
+        }
+        return shared;
+    }
+
+    /**
+     * Registers a listener that is notified after every saved change of the
+     * members.
+     *
+     * @param listener The listener to add.
+     */
+    public void addMemberListener(MemberListener listener) {
+        memberListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with
+     * {@link #addMemberListener(MemberListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeMemberListener(MemberListener listener) {
+        memberListeners.remove(listener);
+    }
+
+    /**
+     * Checks the credentials of an admin user. If the stored password is
+     * still plain text (or hashed with a much lower cost), it is replaced with
+     * a new hash.
+     * <p>
+     * The password is verified with the {@link PasswordHasher}, which takes
+     * some time on purpose, so this must not be called on the EDT.
+     * </p>
+     *
+     * @param email The email of the admin.
+     * @param password The password of the admin.
+     * @return The admin user, or {@code null} if the email is not registered
+     * or the password does not match.
+     */
+    public User login(String email, String password) {
+        long start = Metrics.timer("auth.login").start();
+        try {
+            User user = authenticate(email, password);
+            if (user == null) {
+                Metrics.counter("auth.login.failure").increment();
+                return null;
+            }
+            Metrics.counter("auth.login.success").increment();
+            return hasher.needsRehash(user.password()) ? rehash(user, password) : user;
+        } finally {
+            Metrics.timer("auth.login").stop(start);
+        }
+    }
+
+    /**
+     * Checks the credentials of an admin user, like {@link #login(String, String)}
+     * but without counting a login or upgrading the stored password. Used to
+     * confirm CRUD operations and to authorize the requests of the HTTP API.
+     * <p>
+     * An unknown email takes as long to check as a wrong password. This must
+     * not be called on the EDT.
+     * </p>
+     *
+     * @param email The email of the admin.
+     * @param password The password of the admin.
+     * @return The admin user, or {@code null} if the email is not registered
+     * or the password does not match.
+     */
+    public User authenticate(String email, String password) {
+        User user = email == null ? null : admins.findByEmail(email);
+        if (user == null || !user.email().equals(email)) {
+            hasher.verifyDummy(password);
+            return null;
+        }
+        return hasher.verify(password, user.password()) ? user : null;
+    }
+
+    /**
+     * @param email The email of the admin.
+     * @return {@code true} if an admin user with this email is registered.
+     */
+    public boolean isAdmin(String email) {
+        return email != null && admins.findByEmail(email) != null;
+    }
+
+    /**
+     * Registers a new admin user. The email is stored in lower case and the
+     * password is hashed with the {@link PasswordHasher}, so this must not be
+     * called on the EDT.
+     *
+     * @param username The username of the new admin.
+     * @param email The email of the new admin.
+     * @param password The password of the new admin.
+     * @return The registered admin user.
+     * @throws UserServiceException If the details are invalid, the email is
+     * already registered or the user cannot be saved.
+     */
+    public User registerAdmin(String username, String email, String password) {
+        long start = Metrics.timer("auth.register").start();
+        try {
+            validate(username, email, password);
+            String normalizedEmail = normalizeEmail(email);
+            String hash = hasher.hash(password);
+            writeLock.lock();
+            try {
+                if (admins.existsByEmail(normalizedEmail)) {
+                    Metrics.counter("auth.register.duplicate").increment();
+                    throw new UserServiceException(Reason.DUPLICATE, "This email is already registered.");
+                }
+                User user = new User(username.trim(), normalizedEmail, hash, "admin", LocalDate.now().toString());
+                if (!admins.add(user)) {
+                    throw new UserServiceException(Reason.STORAGE, "Unable to save the changes. Please try again.");
+                }
+                return user;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            Metrics.timer("auth.register").stop(start);
+        }
+    }
+
+    /**
+     * @return The number of users in the member repository.
+     */
+    public int countMembers() {
+        return members.size();
+    }
+
+    /**
+     * Returns a page of the member repository in storage order.
+     *
+     * @param offset The position of the first user of the page.
+     * @param limit The maximum number of users of the page.
+     * @return The users of the page.
+     */
+    public List<User> listMembers(int offset, int limit) {
+        int from = Math.max(offset, 0);
+        int end = (int) Math.min((long) from + Math.max(limit, 0), members.size());
+        List<User> page = new ArrayList<>(Math.max(end - from, 0));
+        for (int i = from; i < end; i++) {
+            User user = members.get(i);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * @param email The email of the member (case-insensitive).
+     * @return The member, or {@code null} if no member has this email.
+     */
+    public User findMember(String email) {
+        return email == null ? null : members.findByEmail(email.trim());
+    }
+
+    /**
+     * Adds a new member, signed up today.
+     *
+     * @param username The username of the new member.
+     * @param email The email of the new member.
+     * @param password The password of the new member.
+     * @return The added member.
+     * @throws UserServiceException If the details are invalid, the email is
+     * already registered or the user cannot be saved.
+     */
+    public User addMember(String username, String email, String password) {
+        long start = Metrics.timer("users.add").start();
+        writeLock.lock();
+        try {
+            validate(username, email, password);
+            String normalizedEmail = normalizeEmail(email);
+            if (members.existsByEmail(normalizedEmail)) {
+                throw new UserServiceException(Reason.DUPLICATE, "This user is already registered. Please try another one.");
+            }
+            User user = new User(username.trim(), normalizedEmail, password, "member", LocalDate.now().toString());
+            if (!members.add(user)) {
+                throw new UserServiceException(Reason.STORAGE, "Unable to save the changes. Please try again.");
+            }
+            List<User> added = List.of(user);
+            memberListeners.forEach(listener -> listener.membersAdded(members.size() - 1, added));
+            return user;
+        } finally {
+            writeLock.unlock();
+            Metrics.timer("users.add").stop(start);
+        }
+    }
+
+    /**
+     * Adds the members of a CSV file in one go, instead of one
+     * {@link #addMember(String, String, String)} per row.
+     * <p>
+     * The file has one member per line (<code>username,email,password</code>)
+     * and may start with a header line. A fourth column is read as the role,
+     * and rows with the admin role are rejected; any further columns are
+     * ignored. Every member is signed up today.
+     * </p>
+     * <p>
+     * The file is streamed in chunks of {@value #IMPORT_CHUNK_ROWS} rows. The
+     * rows of a chunk are checked with the {@link UserValidator} in parallel,
+     * then compared in file order against the emails of the file and of the
+     * member repository, so the first row of an email wins. The accepted rows
+     * are added with a single {@link UserRepository#addAll(List)} at the end,
+     * so either all of them are stored or none.
+     * </p>
+     * <p>
+     * Every rejected row is written to the rejects report
+     * (<code>line,email,reason</code>, with the fields quoted where needed)
+     * as soon as it is found. The import can be stopped by throwing from the
+     * progress callback, before anything is added.
+     * </p>
+     *
+     * @param csv The file to import.
+     * @param rejectsReport The file to write the rejected rows to, or
+     * {@code null} to skip the report.
+     * @param progress Called with the percentage of the file read so far, or
+     * {@code null}.
+     * @return The number of imported and rejected rows.
+     * @throws UserServiceException If the file cannot be read, or the
+     * members or the report cannot be written.
+     */
+    public ImportResult importMembers(Path csv, Path rejectsReport, IntConsumer progress) {
+        long start = Metrics.timer("users.import").start();
+        String today = LocalDate.now().toString();
+        List<ImportRow> accepted = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        int rejected = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+                BufferedWriter report = rejectsReport == null ? null : Files.newBufferedWriter(rejectsReport, StandardCharsets.UTF_8)) {
+            if (report != null) {
+                report.write("line,email,reason");
+                report.newLine();
+            }
+            long size = Math.max(Files.size(csv), 1);
+            long read = 0;
+            int lineNumber = 0;
+            List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_ROWS);
+            String line;
+            do {
+                line = reader.readLine();
+                if (line != null) {
+                    lineNumber++;
+                    read += line.length() + 1;
+                    if (!line.isBlank() && !(lineNumber == 1 && isImportHeader(line))) {
+                        chunk.add(new ImportRow(lineNumber, line, null, null, null));
+                    }
+                }
+                if (chunk.size() == IMPORT_CHUNK_ROWS || (line == null && !chunk.isEmpty())) {
+                    List<ImportRow> checked = chunk.parallelStream().map(row -> parseImportRow(row, today)).toList();
+                    for (ImportRow row : checked) {
+                        String error = row.error();
+                        if (error == null && !emails.add(row.email())) {
+                            error = "Duplicate email in the file.";
+                        } else if (error == null && members.existsByEmail(row.email())) {
+                            error = "This user is already registered.";
+                        }
+                        if (error == null) {
+                            accepted.add(row);
+                        } else {
+                            rejected++;
+                            reject(report, row, error);
+                        }
+                    }
+                    chunk.clear();
+                    if (progress != null) {
+                        progress.accept((int) Math.min(read * 100 / size, 99));
+                    }
+                }
+            } while (line != null);
+
+            writeLock.lock();
+            try {
+                // Members may have been added since their rows were checked
+                List<User> added = new ArrayList<>(accepted.size());
+                for (ImportRow row : accepted) {
+                    if (members.existsByEmail(row.email())) {
+                        rejected++;
+                        reject(report, row, "This user is already registered.");
+                    } else {
+                        added.add(row.user());
+                    }
+                }
+                int firstIndex = members.size();
+                if (!members.addAll(added)) {
+                    throw new UserServiceException(Reason.STORAGE, "Unable to save the changes. Please try again.");
+                }
+                if (!added.isEmpty()) {
+                    memberListeners.forEach(listener -> listener.membersAdded(firstIndex, added));
+                }
+                Metrics.counter("users.import.accepted").add(added.size());
+                Metrics.counter("users.import.rejected").add(rejected);
+                if (progress != null) {
+                    progress.accept(100);
+                }
+                return new ImportResult(added.size(), rejected, rejectsReport);
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (IOException e) {
+            Metrics.error("users.import", e);
+            throw new UserServiceException(Reason.STORAGE, "Unable to read the file or write the rejects report.");
+        } finally {
+            Metrics.timer("users.import").stop(start);
+        }
+    }
+
+    /**
+     * Changes the details of the member at a position of the member
+     * repository. The role and signup date are kept.
+     *
+     * @param index The position of the member.
+     * @param username The new username.
+     * @param email The new email.
+     * @param password The new password.
+     * @return The updated member.
+     * @throws UserServiceException If the member does not exist or is an
+     * admin, the details are invalid, the new email belongs to another user
+     * or the change cannot be saved.
+     */
+    public User updateMember(int index, String username, String email, String password) {
+        writeLock.lock();
+        try {
+            return update(index, members.get(index), username, email, password);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Changes the details of the member with the given email. The role and
+     * signup date are kept.
+     *
+     * @param currentEmail The current email of the member.
+     * @param username The new username.
+     * @param email The new email.
+     * @param password The new password.
+     * @return The updated member.
+     * @throws UserServiceException If the member does not exist or is an
+     * admin, the details are invalid, the new email belongs to another user
+     * or the change cannot be saved.
+     */
+    public User updateMember(String currentEmail, String username, String email, String password) {
+        writeLock.lock();
+        try {
+            User current = findMember(currentEmail);
+            return update(current == null ? -1 : members.indexOf(current), current, username, email, password);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the member at a position of the member repository.
+     *
+     * @param index The position of the member.
+     * @throws UserServiceException If the member does not exist or is an
+     * admin, or the change cannot be saved.
+     */
+    public void deleteMember(int index) {
+        writeLock.lock();
+        try {
+            delete(index, members.get(index));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the member with the given email.
+     *
+     * @param email The email of the member.
+     * @throws UserServiceException If the member does not exist or is an
+     * admin, or the change cannot be saved.
+     */
+    public void deleteMember(String email) {
+        writeLock.lock();
+        try {
+            User current = findMember(email);
+            delete(current == null ? -1 : members.indexOf(current), current);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private User update(int index, User current, String username, String email, String password) {
+        long start = Metrics.timer("users.update").start();
+        try {
+            checkEditable(current, "Admin cannot be edited!");
+            validate(username, email, password);
+            String normalizedEmail = normalizeEmail(email);
+            User owner = members.findByEmail(normalizedEmail);
+            if (owner != null && owner != current) {
+                throw new UserServiceException(Reason.DUPLICATE, "This user is already registered. Please try another one.");
+            }
+            User user = new User(username.trim(), normalizedEmail, password, current.role(), current.createdAt());
+            if (!members.update(index, user)) {
+                throw new UserServiceException(Reason.STORAGE, "Unable to save the changes. Please try again.");
+            }
+            memberListeners.forEach(listener -> listener.memberUpdated(index, user));
+            return user;
+        } finally {
+            Metrics.timer("users.update").stop(start);
+        }
+    }
+
+    private void delete(int index, User current) {
+        long start = Metrics.timer("users.delete").start();
+        try {
+            checkEditable(current, "Admin cannot be deleted!");
+            if (!members.delete(index)) {
+                throw new UserServiceException(Reason.STORAGE, "Unable to save the changes. Please try again.");
+            }
+            memberListeners.forEach(listener -> listener.memberDeleted(index));
+        } finally {
+            Metrics.timer("users.delete").stop(start);
+        }
+    }
+
+    /**
+     * Replaces the stored password of an admin with a new hash of the
+     * verified password. If the admin was changed in the meantime, or the
+     * hash cannot be saved, the admin is kept as it is.
+     */
+    private User rehash(User user, String password) {
+        User upgraded = new User(user.username(), user.email(), hasher.hash(password), user.role(), user.createdAt());
+        writeLock.lock();
+        try {
+            int index = admins.indexOf(user);
+            if (index >= 0 && admins.update(index, upgraded)) {
+                Metrics.counter("auth.password.upgraded").increment();
+                return upgraded;
+            }
+            return user;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * A row of an import file. Before it is parsed, only the line is set;
+     * after, the email and either the user or the error.
+     */
+    private record ImportRow(int lineNumber, String line, String email, User user, String error) {
+    }
+
+    /**
+     * Parses and validates a row of an import file. Runs on the threads of
+     * the common fork-join pool, so it only reads the row.
+     */
+    private static ImportRow parseImportRow(ImportRow row, String createdAt) {
+        String[] fields = row.line().split(",", -1);
+        String email = fields.length > 1 ? normalizeEmail(fields[1]) : "";
+        String error;
+        if (fields.length < 3) {
+            error = "Expected username,email,password.";
+        } else if (fields.length > 3 && fields[3].trim().equalsIgnoreCase("admin")) {
+            error = "Admin users cannot be imported.";
+        } else {
+            error = UserValidator.validate(fields[0].trim(), email, fields[2]);
+        }
+        if (error != null) {
+            return new ImportRow(row.lineNumber(), null, email, null, error);
+        }
+        User user = new User(fields[0].trim(), email, fields[2], "member", createdAt);
+        return new ImportRow(row.lineNumber(), null, email, user, null);
+    }
+
+    private static boolean isImportHeader(String line) {
+        int comma = line.indexOf(',');
+        return (comma < 0 ? line : line.substring(0, comma)).trim().equalsIgnoreCase("username");
+    }
+
+    private static void reject(BufferedWriter report, ImportRow row, String reason) throws IOException {
+        if (report != null) {
+            report.write(row.lineNumber() + "," + csvField(row.email()) + "," + csvField(reason));
+            report.newLine();
+        }
+    }
+
+    /**
+     * Quotes a field of the rejects report if it contains a comma, a quote or
+     * a line separator, so an email read from a malformed row cannot shift
+     * the columns of the report.
+     */
+    private static String csvField(String value) {
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void checkEditable(User user, String adminMessage) {
+        if (user == null) {
+            throw new UserServiceException(Reason.NOT_FOUND, "User not found.");
+        }
+        if (user.isAdmin()) {
+            throw new UserServiceException(Reason.FORBIDDEN, adminMessage);
+        }
+    }
+
+    /**
+     * Normalizes an email the way every user is stored, whether it is added,
+     * changed, imported or registered: trimmed and in lower case. Passwords
+     * are stored exactly as they were entered.
+     */
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks the details of a user. The username and the email are checked
+     * trimmed, the password as it is.
+     */
+    private static void validate(String username, String email, String password) {
+        String error = UserValidator.validate(username == null ? null : username.trim(), email == null ? null : email.trim(), password);
+        if (error != null) {
+            throw new UserServiceException(Reason.INVALID, error);
+        }
+    }
+}
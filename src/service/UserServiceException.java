@@ -0,0 +1,58 @@
+package service;
+
+/**
+ * Thrown by the {@link UserService} when an operation is refused or cannot
+ * be saved. The {@link Reason} tells the caller why, so the screens can show
+ * the message and the HTTP API can choose the status code.
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class UserServiceException extends RuntimeException {
+
+    /**
+     * Why an operation of the {@link UserService} failed.
+     */
+    public enum Reason {
+        /**
+         * The username, email or password breaks a {@link UserValidator}
+         * rule.
+         */
+        INVALID,
+        /**
+         * The email is already registered.
+         */
+        DUPLICATE,
+        /**
+         * No user has the given email or position.
+         */
+        NOT_FOUND,
+        /**
+         * The user is an admin, which cannot be edited or deleted.
+         */
+        FORBIDDEN,
+        /**
+         * The change could not be written to the data file.
+         */
+        STORAGE
+    }
+
+    private final Reason reason;
+
+    /**
+     * @param reason Why the operation failed.
+     * @param message The message to show to the user.
+     */
+    public UserServiceException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * @return Why the operation failed.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+}
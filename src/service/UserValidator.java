@@ -0,0 +1,116 @@
+package service;
+
+import java.util.regex.Pattern;
+
+/**
+ * The validation rules of the user details, shared by the user management
+ * dialogs, the {@link UserService} and the HTTP API.
+ * <p>
+ * Every method returns the message to show for the first rule the value
+ * breaks, or {@code null} if the value is valid. The username and the email
+ * are expected to be trimmed already; the password is checked as it is,
+ * since it is never trimmed.
+ * </p>
+ *
+ * <ul>
+ * <li>Username must not be empty, must be at least 3 characters long, and
+ * cannot contain numbers or special characters.</li>
+ * <li>Email must be valid according to a predefined regex pattern.</li>
+ * <li>Password must be at least 8 characters long and include at least one
+ * uppercase letter, one number and one special character.</li>
+ * </ul>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class UserValidator {
+
+    private static final Pattern VALID_USERNAME_REGEX = Pattern.compile("[^a-zA-Z ]");
+
+    private static final Pattern VALID_EMAIL_ADDRESS_REGEX
+            = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern VALID_PASSWORD_REGEX_NUMBER_CHAR = Pattern.compile(".*[0-9].*");
+
+    private static final Pattern VALID_PASSWORD_REGEX_UPPER_CHAR = Pattern.compile(".*[A-Z].*");
+
+    private static final Pattern VALID_PASSWORD_REGEX_SPECIAL_CHAR = Pattern.compile(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?].*");
+
+    private UserValidator() {
+    }
+
+    /**
+     * @param username The username to check.
+     * @return The error message, or {@code null} if the username is valid.
+     */
+    public static String usernameError(String username) {
+        if (username == null || username.isEmpty()) {
+            return "Username cannot be empty!";
+        }
+        if (username.length() < 3) {
+            return "Please enter the username correctly!";
+        }
+        if (VALID_USERNAME_REGEX.matcher(username).find()) {
+            return "Special characters and numbers are not allowed in username";
+        }
+        return null;
+    }
+
+    /**
+     * @param email The email to check.
+     * @return The error message, or {@code null} if the email is valid.
+     */
+    public static String emailError(String email) {
+        if (email == null || email.isEmpty()) {
+            return "Please enter the email!";
+        }
+        if (!VALID_EMAIL_ADDRESS_REGEX.matcher(email).matches()) {
+            return "Please enter the email address correctly.";
+        }
+        return null;
+    }
+
+    /**
+     * @param password The password to check.
+     * @return The error message, or {@code null} if the password is valid.
+     */
+    public static String passwordError(String password) {
+        if (password == null || password.isEmpty()) {
+            return "Please enter the password!";
+        }
+        if (password.length() < 8) {
+            return "Password must be at least 8 characters long!";
+        }
+        if (!VALID_PASSWORD_REGEX_UPPER_CHAR.matcher(password).matches()) {
+            return "The password must at least one uppercase";
+        }
+        if (!VALID_PASSWORD_REGEX_NUMBER_CHAR.matcher(password).matches()) {
+            return "The password must at least one number";
+        }
+        if (!VALID_PASSWORD_REGEX_SPECIAL_CHAR.matcher(password).matches()) {
+            return "The password must at least one special character";
+        }
+        return null;
+    }
+
+    /**
+     * Checks the username, email and password in this order.
+     *
+     * @param username The username to check.
+     * @param email The email to check.
+     * @param password The password to check.
+     * @return The error message of the first invalid value, or {@code null}
+     * if all of them are valid.
+     */
+    public static String validate(String username, String email, String password) {
+        String error = usernameError(username);
+        if (error == null) {
+            error = emailError(email);
+        }
+        if (error == null) {
+            error = passwordError(password);
+        }
+        return error;
+    }
+}
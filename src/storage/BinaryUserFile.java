@@ -0,0 +1,423 @@
+package storage;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import metrics.Metrics;
+
+/**
+ * The binary storage format of the user data, and random access to it.
+ * <p>
+ * Unlike the comma separated files, the fields are length-prefixed, so a
+ * username or password may contain commas and line separators. The file is
+ * laid out as:
+ * </p>
+ * <pre>
+ * Header (32 bytes)
+ *   int   magic ("RBUS")
+ *   int   version
+ *   int   row count
+ *   int   reserved
+ *   long  footer offset
+ *   long  reserved
+ * Records, one per user
+ *   byte  role (0 = member, 1 = admin, 255 = other, followed by the role as a string)
+ *   int   createdAt as epoch day (Integer.MIN_VALUE if it is not an ISO date,
+ *         followed by createdAt as a string)
+ *   string username, string email, string password
+ * Footer
+ *   long  offset of the record of each row
+ * </pre>
+ * <p>
+ * A string is an unsigned {@code short} byte length followed by its UTF-8
+ * bytes, so a single field holds at most {@value #MAX_FIELD_BYTES} bytes.
+ * All numbers are big-endian. The footer turns a row id into the offset of its
+ * record, so {@link #user(int)} reads a single record in constant time.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class BinaryUserFile implements AutoCloseable {
+
+    static final int MAGIC = 0x52425553; // "RBUS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int MAX_FIELD_BYTES = 0xFFFF;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte ROLE_MEMBER = 0;
+    private static final byte ROLE_ADMIN = 1;
+    private static final byte ROLE_OTHER = (byte) 0xFF;
+    private static final int NO_EPOCH_DAY = Integer.MIN_VALUE;
+
+    private final FileChannel channel;
+    private final long[] offsets;
+    private final long footerOffset;
+
+    private BinaryUserFile(FileChannel channel, long[] offsets, long footerOffset) {
+        this.channel = channel;
+        this.offsets = offsets;
+        this.footerOffset = footerOffset;
+    }
+
+    /**
+     * Opens a binary user file for random access. Only the header and the
+     * footer are read.
+     *
+     * @param file The binary file containing user data.
+     * @return The opened file.
+     * @throws IOException If the file cannot be read or is not a binary user
+     * file.
+     */
+    public static BinaryUserFile open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            long footerOffset = header.getLong(16);
+            return new BinaryUserFile(channel, readOffsets(channel, header), footerOffset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of users in the file.
+     */
+    public int rowCount() {
+        return offsets.length;
+    }
+
+    /**
+     * Reads the user of a single row.
+     *
+     * @param row The row, from 0 to {@link #rowCount()} - 1.
+     * @return The {@link User} of the row.
+     * @throws IOException If the record cannot be read.
+     */
+    public User user(int row) throws IOException {
+        long end = row + 1 < offsets.length ? offsets[row + 1] : footerOffset;
+        long length = end - offsets[row];
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt record " + row);
+        }
+        return readRecord(readFully(channel, offsets[row], (int) length), null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Checks whether a file starts with the magic number of a binary user
+     * file. Only the first bytes are read.
+     *
+     * @param file The file to check.
+     * @return {@code true} if the file is a binary user file.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isBinaryUserFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) < 0) {
+                    return false;
+                }
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads every user of a binary file in a single sequential pass.
+     *
+     * @param file The binary file containing user data.
+     * @return A mutable {@link List} of the users. Returns an empty list if
+     * the file does not exist.
+     * @throws IOException If the file cannot be read or is not a binary user
+     * file.
+     */
+    static List<User> readUsers(File file) throws IOException {
+        List<User> loaded = new ArrayList<>();
+        if (!file.exists()) {
+            return loaded;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            long[] offsets = readOffsets(channel, header);
+            long footerOffset = header.getLong(16);
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+            DateCache dates = new DateCache();
+            long position = HEADER_SIZE;
+            for (int row = 0; row < offsets.length; row++) {
+                long end = row + 1 < offsets.length ? offsets[row + 1] : footerOffset;
+                long length = end - offsets[row];
+                if (offsets[row] != position - buffer.remaining() || length < 0 || length > Integer.MAX_VALUE) {
+                    throw new IOException("Corrupt record " + row);
+                }
+                if (buffer.remaining() < length) {
+                    // Move the rest of the buffer to the front and fill it up.
+                    if (buffer.capacity() < length) {
+                        buffer = ByteBuffer.allocate((int) length).put(buffer);
+                    } else {
+                        buffer.compact();
+                    }
+                    while (buffer.position() < length) {
+                        int read = channel.read(buffer, position);
+                        if (read < 0) {
+                            throw new EOFException();
+                        }
+                        position += read;
+                    }
+                    buffer.flip();
+                }
+                ByteBuffer record = buffer.slice(buffer.position(), (int) length);
+                buffer.position(buffer.position() + (int) length);
+                loaded.add(readRecord(record, dates));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Overwrites a file with the given users in the binary format. Like
+     * {@link FileUserRepository#writeUsersToFile(File, List)}, the users are
+     * written to a temporary file first, which then replaces the file.
+     *
+     * @param file The file to overwrite.
+     * @param users The users to write.
+     * @return {@code true} if the file was written, otherwise {@code false}
+     * (also when a field is longer than {@value #MAX_FIELD_BYTES} bytes).
+     */
+    static boolean writeUsers(File file, List<User> users) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            FileChannel channel = out.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.position(HEADER_SIZE); // Written last, once the footer offset is known
+            long position = 0;
+
+            long[] offsets = new long[users.size()];
+            for (int row = 0; row < offsets.length; row++) {
+                offsets[row] = position + buffer.position();
+                byte[] record = encodeRecord(users.get(row));
+                if (buffer.remaining() < record.length) {
+                    position += writeFully(channel, buffer.flip());
+                    buffer.clear();
+                    if (buffer.capacity() < record.length) {
+                        buffer = ByteBuffer.allocate(record.length);
+                    }
+                }
+                buffer.put(record);
+            }
+            long footerOffset = position + buffer.position();
+            for (long offset : offsets) {
+                if (buffer.remaining() < Long.BYTES) {
+                    position += writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(offset);
+            }
+            writeFully(channel, buffer.flip());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(users.size()).putInt(0).putLong(footerOffset).putLong(0).flip();
+            channel.position(0);
+            writeFully(channel, header);
+            out.getFD().sync();
+        } catch (IOException e) {
+            Metrics.error("storage.write", e);
+            return false;
+        }
+        return FileUserRepository.replaceFile(temp, file);
+    }
+
+    /**
+     * Reads the footer of a file that starts with the given header.
+     *
+     * @return The offset of the record of each row.
+     */
+    private static long[] readOffsets(FileChannel channel, ByteBuffer header) throws IOException {
+        int rowCount = checkHeader(header);
+        long footerOffset = header.getLong(16);
+        if (rowCount > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IOException("Too many rows " + rowCount);
+        }
+        if (footerOffset < HEADER_SIZE || footerOffset + rowCount * (long) Long.BYTES != channel.size()) {
+            throw new IOException("Corrupt footer offset " + footerOffset);
+        }
+        long[] offsets = new long[rowCount];
+        readFully(channel, footerOffset, rowCount * Long.BYTES).asLongBuffer().get(offsets);
+        return offsets;
+    }
+
+    /**
+     * Checks the magic number and version of a header.
+     *
+     * @return The row count of the header.
+     */
+    private static int checkHeader(ByteBuffer header) throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary user file");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary user file version " + header.getInt(4));
+        }
+        int rowCount = header.getInt(8);
+        if (rowCount < 0) {
+            throw new IOException("Corrupt row count " + rowCount);
+        }
+        return rowCount;
+    }
+
+    private static User readRecord(ByteBuffer record, DateCache dates) throws IOException {
+        try {
+            byte roleByte = record.get();
+            String role = switch (roleByte) {
+                case ROLE_MEMBER -> "member";
+                case ROLE_ADMIN -> "admin";
+                case ROLE_OTHER -> readString(record);
+                default -> throw new IOException("Unknown role " + roleByte);
+            };
+            int epochDay = record.getInt();
+            String createdAt;
+            if (epochDay == NO_EPOCH_DAY) {
+                createdAt = readString(record);
+            } else if (dates != null) {
+                createdAt = dates.get(epochDay);
+            } else {
+                createdAt = LocalDate.ofEpochDay(epochDay).toString();
+            }
+            String username = readString(record);
+            String email = readString(record);
+            String password = readString(record);
+            return new User(username, email, password, role, createdAt);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt record", e);
+        }
+    }
+
+    private static byte[] encodeRecord(User user) throws IOException {
+        byte[] role = null;
+        byte roleByte = ROLE_OTHER;
+        if ("member".equals(user.role())) {
+            roleByte = ROLE_MEMBER;
+        } else if ("admin".equals(user.role())) {
+            roleByte = ROLE_ADMIN;
+        } else {
+            role = encodeString(user.role());
+        }
+        int epochDay = toEpochDay(user.createdAt());
+        byte[] createdAt = epochDay == NO_EPOCH_DAY ? encodeString(user.createdAt()) : null;
+        byte[] username = encodeString(user.username());
+        byte[] email = encodeString(user.email());
+        byte[] password = encodeString(user.password());
+
+        int length = 1 + Integer.BYTES + 3 * Short.BYTES + username.length + email.length + password.length
+                + (role == null ? 0 : Short.BYTES + role.length)
+                + (createdAt == null ? 0 : Short.BYTES + createdAt.length);
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.put(roleByte);
+        putString(record, role);
+        record.putInt(epochDay);
+        putString(record, createdAt);
+        putString(record, username);
+        putString(record, email);
+        putString(record, password);
+        return record.array();
+    }
+
+    /**
+     * Converts an ISO date (yyyy-MM-dd) to its epoch day, only if the date
+     * is written back exactly the same way.
+     */
+    private static int toEpochDay(String createdAt) {
+        if (createdAt == null) {
+            return NO_EPOCH_DAY;
+        }
+        try {
+            LocalDate date = LocalDate.parse(createdAt);
+            long epochDay = date.toEpochDay();
+            if (date.toString().equals(createdAt) && epochDay > NO_EPOCH_DAY && epochDay <= Integer.MAX_VALUE) {
+                return (int) epochDay;
+            }
+        } catch (DateTimeParseException e) {
+        }
+        return NO_EPOCH_DAY;
+    }
+
+    private static String readString(ByteBuffer record) {
+        int length = Short.toUnsignedInt(record.getShort());
+        String value = new String(record.array(), record.arrayOffset() + record.position(), length, StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return value;
+    }
+
+    private static byte[] encodeString(String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new IOException("Field longer than " + MAX_FIELD_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer record, byte[] bytes) {
+        if (bytes != null) {
+            record.putShort((short) bytes.length);
+            record.put(bytes);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return written;
+    }
+
+    /**
+     * Formats epoch days to dates once per distinct day while reading a whole
+     * file, as many users sign up on the same day. The users then also share
+     * the same CreatedAt strings.
+     */
+    private static final class DateCache {
+
+        private final int[] days = new int[1024];
+        private final String[] dates = new String[1024];
+
+        String get(int epochDay) {
+            int slot = epochDay & (days.length - 1);
+            if (dates[slot] == null || days[slot] != epochDay) {
+                days[slot] = epochDay;
+                dates[slot] = LocalDate.ofEpochDay(epochDay).toString();
+            }
+            return dates[slot];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package storage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link FileUserRepository} that stores the users in the binary format of
+ * {@link BinaryUserFile} instead of a comma separated text file.
+ * <p>
+ * The fields are length-prefixed, so usernames, emails and passwords may
+ * contain commas and line separators. Every change rewrites the file from
+ * the in-memory list, through a temporary file that replaces the data file.
+ * Existing text files can be migrated with {@link UserFileConverter}.
+ * </p>
+ * <p>
+ * If the file exists but cannot be read (e.g. it is still a text file, or it
+ * is corrupt), the repository is empty and read-only: every change is
+ * rejected, so the unread users are never overwritten by a rewrite of the
+ * file.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class BinaryUserRepository extends FileUserRepository {
+
+    /**
+     * Creates a repository for the given binary data file. The file is not
+     * read until the repository is first used.
+     *
+     * @param file The path to the binary file containing user data.
+     */
+    public BinaryUserRepository(String file) {
+        super(file);
+    }
+
+    /**
+     * Loads the users of the binary file.
+     *
+     * @return A mutable {@link List} of the stored users. Returns an empty
+     * list if the file does not exist.
+     * @throws IOException If the file cannot be read, in which case the
+     * repository becomes read-only.
+     */
+    @Override
+    protected List<User> loadUsers() throws IOException {
+        return BinaryUserFile.readUsers(file);
+    }
+
+    @Override
+    protected boolean persistAdd(User user) {
+        return rewrite();
+    }
+
+    @Override
+    protected boolean persistAddAll(List<User> added) {
+        return rewrite();
+    }
+
+    @Override
+    protected boolean persistUpdate(int index, User user) {
+        return rewrite();
+    }
+
+    @Override
+    protected boolean persistDelete(int index) {
+        return rewrite();
+    }
+
+    /**
+     * Rewrites the file from the in-memory list. A file that could not be
+     * read is never rewritten, as changes are rejected before they get here.
+     */
+    private boolean rewrite() {
+        return BinaryUserFile.writeUsers(file, users());
+    }
+}
@@ -0,0 +1,194 @@
+package storage;
+
+import java.util.Locale;
+
+/**
+ * A case-insensitive hash index from email to {@link User}, used by the
+ * repositories for constant-time duplicate checks and lookups.
+ * <p>
+ * The index is an open-addressing table with linear probing, which keeps the
+ * keys, users and counters in three flat arrays instead of allocating an
+ * entry object for every user. Removal uses backward-shift deletion, so no
+ * tombstones are left behind.
+ * </p>
+ * <p>
+ * Older data files may contain the same email more than once, so every key
+ * also counts how many users share it. A key is only removed when the last of
+ * them is removed.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+final class EmailIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] keys;
+    private User[] users;
+    private int[] counts;
+    private int size;
+
+    /**
+     * Creates an index sized for the given number of users.
+     *
+     * @param expectedSize The number of users expected in the index.
+     */
+    EmailIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Normalizes an email for use as a key (trimmed and lower case).
+     *
+     * @param email The email to normalize.
+     * @return The normalized email.
+     */
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds the user indexed under the given email.
+     *
+     * @param email The email to look for (any case).
+     * @return The {@code User}, or {@code null} if the email is not indexed.
+     */
+    User get(String email) {
+        int slot = find(normalize(email));
+        return slot < 0 ? null : users[slot];
+    }
+
+    /**
+     * Adds a user to the index. If the email is already indexed, the existing
+     * user is kept and only the counter is increased.
+     *
+     * @param user The user to add.
+     */
+    void add(User user) {
+        String key = normalize(user.email());
+        int slot = find(key);
+        if (slot >= 0) {
+            counts[slot]++;
+            return;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        insert(key, user, 1);
+        size++;
+    }
+
+    /**
+     * Removes a user from the index.
+     *
+     * @param user The user to remove.
+     * @param replacement Another user with the same email that should stay
+     * indexed if {@code user} was the indexed one, or {@code null} if none is
+     * known.
+     */
+    void remove(User user, User replacement) {
+        String key = normalize(user.email());
+        int slot = find(key);
+        if (slot < 0) {
+            return;
+        }
+        if (--counts[slot] > 0) {
+            if (users[slot] == user && replacement != null) {
+                users[slot] = replacement;
+            }
+            return;
+        }
+        deleteSlot(slot);
+        size--;
+    }
+
+    /**
+     * Checks if another user shares the email of the given user and would
+     * need to replace it in the index when it is removed.
+     *
+     * @param user The user about to be removed.
+     * @return {@code true} if a replacement has to be looked up.
+     */
+    boolean needsReplacement(User user) {
+        int slot = find(normalize(user.email()));
+        return slot >= 0 && counts[slot] > 1 && users[slot] == user;
+    }
+
+    private int find(String key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(String key, User user, int count) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        users[slot] = user;
+        counts[slot] = count;
+    }
+
+    /**
+     * Empties a slot and shifts the following entries of the probe sequence
+     * back, so lookups never stop early at the freed slot.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (keys[next] != null) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry back if its home slot is not between the free slot and itself.
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                users[free] = users[next];
+                counts[free] = counts[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = null;
+        users[free] = null;
+        counts[free] = 0;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        User[] oldUsers = users;
+        int[] oldCounts = counts;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldUsers[i], oldCounts[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        users = new User[capacity];
+        counts = new int[capacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,492 @@
+package storage;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+import metrics.Metrics;
+
+/**
+ * A {@link UserRepository} backed by a comma separated text file.
+ * <p>
+ * The file is read once, the first time the repository is used, and every
+ * read after that is served from the in-memory list. New users are appended
+ * to the end of the file, while updates and deletes rewrite the file from the
+ * in-memory list.
+ * </p>
+ * <p>
+ * If the file exists but cannot be read, the repository is empty and
+ * read-only: every change is rejected, so the unread users are never
+ * overwritten by a rewrite of the file.
+ * </p>
+ * <p>
+ * Lookups by email go through a case-insensitive {@link EmailIndex} that is
+ * kept in sync with every add, update and delete, so duplicate checks do not
+ * depend on the number of users.
+ * </p>
+ * <p>
+ * Subclasses can change how the changes are persisted by overriding
+ * {@link #loadUsers()}, {@link #persistAdd(User)},
+ * {@link #persistAddAll(List)}, {@link #persistUpdate(int, User)} and {@link #persistDelete(int)}.
+ * </p>
+ * <p>
+ * The file is read either line by line through a reader, or through a
+ * {@link MappedUserFile} that maps the file and decodes each field straight
+ * from its bytes, without a line string or a split per user. Mapping is
+ * meant for large files, where it takes less time and much less garbage to
+ * load them.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class FileUserRepository implements UserRepository {
+
+    protected final File file;
+    protected final boolean memoryMapped;
+    private List<User> users;
+    private EmailIndex emailIndex;
+    private IOException loadFailure;
+
+    /**
+     * Creates a repository for the given data file. The file is not read
+     * until the repository is first used.
+     *
+     * @param file The path to the file containing user data.
+     */
+    public FileUserRepository(String file) {
+        this(file, false);
+    }
+
+    /**
+     * Creates a repository for the given data file. The file is not read
+     * until the repository is first used.
+     *
+     * @param file The path to the file containing user data.
+     * @param memoryMapped {@code true} to read the file through a
+     * {@link MappedUserFile}, {@code false} to read it line by line.
+     */
+    public FileUserRepository(String file, boolean memoryMapped) {
+        this.file = new File(file);
+        this.memoryMapped = memoryMapped;
+    }
+
+    @Override
+    public synchronized List<User> findAll() {
+        return Collections.unmodifiableList(new ArrayList<>(users()));
+    }
+
+    @Override
+    public synchronized User get(int index) {
+        List<User> loaded = users();
+        if (index < 0 || index >= loaded.size()) {
+            return null;
+        }
+        return loaded.get(index);
+    }
+
+    @Override
+    public synchronized User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        users();
+        return emailIndex.get(email);
+    }
+
+    @Override
+    public synchronized int indexOf(User user) {
+        List<User> loaded = users();
+        for (int i = 0; i < loaded.size(); i++) {
+            if (loaded.get(i) == user) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized int size() {
+        return users().size();
+    }
+
+    /**
+     * @return {@code true} if the file exists but could not be read, so no
+     * change is written to it.
+     */
+    public synchronized boolean isReadOnly() {
+        users();
+        return loadFailure != null;
+    }
+
+    @Override
+    public synchronized boolean add(User user) {
+        if (isReadOnlyChange()) {
+            return false;
+        }
+        List<User> loaded = users();
+        loaded.add(user);
+        emailIndex.add(user);
+        if (!persistAdd(user)) {
+            loaded.remove(loaded.size() - 1);
+            unindex(user);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(List<User> added) {
+        if (added.isEmpty()) {
+            return true;
+        }
+        if (isReadOnlyChange()) {
+            return false;
+        }
+        List<User> loaded = users();
+        int start = loaded.size();
+        loaded.addAll(added);
+        for (User user : added) {
+            emailIndex.add(user);
+        }
+        if (!persistAddAll(added)) {
+            loaded.subList(start, loaded.size()).clear();
+            for (User user : added) {
+                unindex(user);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean update(int index, User user) {
+        if (isReadOnlyChange()) {
+            return false;
+        }
+        List<User> loaded = users();
+        if (index < 0 || index >= loaded.size()) {
+            return false;
+        }
+        User previous = loaded.set(index, user);
+        unindex(previous);
+        emailIndex.add(user);
+        if (!persistUpdate(index, user)) {
+            loaded.set(index, previous);
+            unindex(user);
+            emailIndex.add(previous);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int index) {
+        if (isReadOnlyChange()) {
+            return false;
+        }
+        List<User> loaded = users();
+        if (index < 0 || index >= loaded.size()) {
+            return false;
+        }
+        User previous = loaded.remove(index);
+        unindex(previous);
+        if (!persistDelete(index)) {
+            loaded.add(index, previous);
+            emailIndex.add(previous);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the in-memory list of users, loading it the first time it is
+     * needed. Callers must hold the lock of this repository.
+     *
+     * @return The loaded users.
+     */
+    protected final List<User> users() {
+        if (users == null) {
+            try {
+                users = loadUsers();
+            } catch (IOException e) {
+                Metrics.error("storage.read", e);
+                loadFailure = e;
+                users = new ArrayList<>();
+            }
+            emailIndex = new EmailIndex(users.size());
+            for (User user : users) {
+                emailIndex.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Checks if a change has to be rejected because the file could not be
+     * read, since the in-memory list then does not hold its users.
+     *
+     * @return {@code true} if the change must not be made.
+     */
+    private boolean isReadOnlyChange() {
+        if (!isReadOnly()) {
+            return false;
+        }
+        Metrics.error("storage.readonly", new IOException("Not writing " + file + ", it could not be read", loadFailure));
+        return true;
+    }
+
+    /**
+     * Removes a user that is no longer in the in-memory list from the email
+     * index. Only if another user shares the same email and the removed user
+     * was the indexed one, the list is scanned for the replacement.
+     *
+     * @param removed The user that was removed from the list.
+     */
+    private void unindex(User removed) {
+        User replacement = null;
+        if (emailIndex.needsReplacement(removed)) {
+            String key = EmailIndex.normalize(removed.email());
+            for (User user : users) {
+                if (user != removed && EmailIndex.normalize(user.email()).equals(key)) {
+                    replacement = user;
+                    break;
+                }
+            }
+        }
+        emailIndex.remove(removed, replacement);
+    }
+
+    /**
+     * Loads the users of this repository. Called once, on first use. If it
+     * fails, the repository becomes read-only.
+     *
+     * @return A mutable {@link List} of the stored users.
+     * @throws IOException If the stored users cannot be read.
+     */
+    protected List<User> loadUsers() throws IOException {
+        return readUsers(null);
+    }
+
+    /**
+     * Reads the users of the data file in the read mode of this repository.
+     * If the file cannot be mapped, it is read line by line instead.
+     *
+     * @param checksum The checksum to update with every byte read, or
+     * {@code null}.
+     * @return A mutable {@link List} of the stored users.
+     * @throws IOException If the file cannot be read.
+     */
+    protected List<User> readUsers(Checksum checksum) throws IOException {
+        if (memoryMapped && file.exists()) {
+            try {
+                return MappedUserFile.readUsers(file, checksum);
+            } catch (IOException | RuntimeException e) {
+                Metrics.error("storage.map", e);
+                if (checksum != null) {
+                    checksum.reset();
+                }
+            }
+        }
+        return readUsersFromFile(file, checksum);
+    }
+
+    /**
+     * Persists a user that was just added at the end of the in-memory list.
+     *
+     * @param user The added user.
+     * @return {@code true} if the change was stored, otherwise {@code false}.
+     */
+    protected boolean persistAdd(User user) {
+        return appendToFile(List.of(user));
+    }
+
+    /**
+     * Persists users that were just added at the end of the in-memory list.
+     * All of them are appended in a single write.
+     *
+     * @param added The added users, in the order they were added.
+     * @return {@code true} if the change was stored, otherwise {@code false}.
+     */
+    protected boolean persistAddAll(List<User> added) {
+        return appendToFile(added);
+    }
+
+    /**
+     * Persists a user that was just replaced in the in-memory list.
+     *
+     * @param index The position of the updated user.
+     * @param user The new details of the user.
+     * @return {@code true} if the change was stored, otherwise {@code false}.
+     */
+    protected boolean persistUpdate(int index, User user) {
+        return writeUsersToFile(file, users);
+    }
+
+    /**
+     * Persists a user that was just removed from the in-memory list.
+     *
+     * @param index The position the user was removed from.
+     * @return {@code true} if the change was stored, otherwise {@code false}.
+     */
+    protected boolean persistDelete(int index) {
+        return writeUsersToFile(file, users);
+    }
+
+    /**
+     * This method reads the file line by line and parses each line into a
+     * {@link User}. Blank or malformed lines are skipped.
+     *
+     * @param file The file containing user data.
+     * @return A {@link List} of users. Returns an empty list if the file does
+     * not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    static List<User> readUsersFromFile(File file) throws IOException {
+        return readUsersFromFile(file, null);
+    }
+
+    /**
+     * Reads the users of the file like {@link #readUsersFromFile(File)}, while
+     * updating {@code checksum} with every byte read.
+     *
+     * @param file The file containing user data.
+     * @param checksum The checksum to update, or {@code null}.
+     * @return A {@link List} of users.
+     * @throws IOException If the file cannot be read.
+     */
+    static List<User> readUsersFromFile(File file, Checksum checksum) throws IOException {
+        List<User> loaded = new ArrayList<>();
+        if (!file.exists()) {
+            return loaded;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(checked(new FileInputStream(file), checksum)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                User user = User.fromCsv(line);
+                if (user != null) {
+                    loaded.add(user);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Appends users to the end of the file, adding a missing line separator
+     * first if the file does not end with one.
+     *
+     * @param added The users to append.
+     * @return {@code true} if the users were written, otherwise {@code false}.
+     */
+    private boolean appendToFile(List<User> added) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            if (file.length() > 0) {
+                raf.seek(file.length() - 1);
+                char lastChar = (char) raf.read();
+
+                if (lastChar != '\n') {
+                    writer.newLine();
+                }
+            }
+
+            for (User user : added) {
+                writer.write(user.toCsv());
+                writer.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            Metrics.error("storage.append", e);
+            return false;
+        }
+    }
+
+    /**
+     * Overwrites the file with the given users. The users are written to a
+     * temporary file first, which then replaces the file, so a crash during
+     * the write never leaves a half-written file behind.
+     *
+     * @param file The file to overwrite.
+     * @param users The users to write.
+     * @return {@code true} if the file was written, otherwise {@code false}.
+     */
+    static boolean writeUsersToFile(File file, List<User> users) {
+        return writeUsersToFile(file, users, null);
+    }
+
+    /**
+     * Overwrites the file like {@link #writeUsersToFile(File, List)}, while
+     * updating {@code checksum} with every byte written.
+     *
+     * @param file The file to overwrite.
+     * @param users The users to write.
+     * @param checksum The checksum to update, or {@code null}.
+     * @return {@code true} if the file was written, otherwise {@code false}.
+     */
+    static boolean writeUsersToFile(File file, List<User> users, Checksum checksum) {
+        File temp = new File(file.getPath() + ".tmp");
+        return writeUsers(temp, users, checksum) && replaceFile(temp, file);
+    }
+
+    /**
+     * Writes the users to a new file and forces it to disk, without moving
+     * it anywhere.
+     *
+     * @param file The file to create or overwrite.
+     * @param users The users to write.
+     * @param checksum The checksum to update with every byte written, or
+     * {@code null}.
+     * @return {@code true} if the file was written, otherwise {@code false}.
+     */
+    static boolean writeUsers(File file, List<User> users, Checksum checksum) {
+        try (FileOutputStream out = new FileOutputStream(file); BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(checked(out, checksum)))) {
+            for (User user : users) {
+                writer.write(user.toCsv());
+                writer.newLine();
+            }
+            writer.flush();
+            out.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            Metrics.error("storage.write", e);
+            return false;
+        }
+    }
+
+    /**
+     * Moves {@code source} over {@code target}, atomically if the file system
+     * supports it.
+     *
+     * @param source The file to move.
+     * @param target The file to replace.
+     * @return {@code true} if the file was replaced, otherwise {@code false}.
+     */
+    static boolean replaceFile(File source, File target) {
+        try {
+            try {
+                Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            Metrics.error("storage.replace", e);
+            return false;
+        }
+    }
+
+    private static InputStream checked(InputStream in, Checksum checksum) {
+        return checksum == null ? in : new CheckedInputStream(in, checksum);
+    }
+
+    private static OutputStream checked(OutputStream out, Checksum checksum) {
+        return checksum == null ? out : new CheckedOutputStream(out, checksum);
+    }
+}
@@ -0,0 +1,541 @@
+package storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import metrics.Metrics;
+
+/**
+ * A {@link FileUserRepository} that journals every change instead of
+ * rewriting the whole data file.
+ * <p>
+ * The data file is used as a snapshot. Every add, update and delete is
+ * appended as a single record to a journal file next to it
+ * (<code>&lt;data file&gt;.journal</code>):
+ * <pre>
+ * BASE,&lt;crc32 of the snapshot&gt;
+ * ADD,username,email,password,role,createdAt
+ * UPDATE,index,username,email,password,role,createdAt
+ * DELETE,index
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * <b>Key Features:</b></p>
+ * <ul>
+ * <li>O(1) disk writes per change (one appended record). The records of a
+ * batch of adds are appended in a single write.</li>
+ * <li>Batched {@code fsync} of the journal every
+ * {@value #SYNC_INTERVAL_MILLIS}ms instead of on every record.</li>
+ * <li>Replay of the journal on top of the snapshot on startup. A torn last
+ * record (crash during a write) is ignored.</li>
+ * <li>Background compaction of the journal into a new snapshot once it grows
+ * past a size threshold. The users are copied under the lock of the
+ * repository, but the snapshot is written without it, so reads and writes
+ * only wait for the final swap of the snapshot and the journal.</li>
+ * </ul>
+ *
+ * <p>
+ * The {@code BASE} header ties the journal to the snapshot it was written
+ * against. If a crash happens after a compaction replaced the snapshot but
+ * before the journal was reset, the checksum no longer matches and the stale
+ * journal is discarded instead of being applied twice. The records appended
+ * while a compaction writes the snapshot are carried over to the new
+ * journal, which is written to a temporary file before the snapshot is
+ * replaced. If a crash happens between the two replacements, that file
+ * matches the new snapshot and is used instead of the stale journal.
+ * </p>
+ * <p>
+ * If a record cannot be appended, the change is stored by writing a new
+ * snapshot, and the journal is reset to the new snapshot (or closed if that
+ * fails too), so later records are never written against a stale
+ * {@code BASE}.
+ * </p>
+ * <p>
+ * The periodic {@code fsync} and the shutdown hook are registered once, the
+ * first time the repository is loaded, and removed by {@link #close()}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public class JournaledUserRepository extends FileUserRepository {
+
+    /**
+     * The default journal size (1 MB) after which it is compacted.
+     */
+    public static final long DEFAULT_COMPACT_THRESHOLD = 1024 * 1024;
+
+    static final long SYNC_INTERVAL_MILLIS = 200;
+
+    private static final ScheduledExecutorService JOURNAL_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File journalFile;
+    private final long compactThreshold;
+    private FileChannel journal;
+    private boolean dirty;
+    private boolean compacting;
+    private int journalGeneration;
+    private ScheduledFuture<?> syncTask;
+    private Thread shutdownHook;
+
+    /**
+     * Creates a journaled repository with the default compaction threshold.
+     *
+     * @param file The path to the snapshot file containing user data.
+     */
+    public JournaledUserRepository(String file) {
+        this(file, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Creates a journaled repository.
+     *
+     * @param file The path to the snapshot file containing user data.
+     * @param compactThreshold The journal size in bytes after which it is
+     * compacted into a new snapshot.
+     */
+    public JournaledUserRepository(String file, long compactThreshold) {
+        this(file, compactThreshold, false);
+    }
+
+    /**
+     * Creates a journaled repository.
+     *
+     * @param file The path to the snapshot file containing user data.
+     * @param compactThreshold The journal size in bytes after which it is
+     * compacted into a new snapshot.
+     * @param memoryMapped {@code true} to read the snapshot through a
+     * {@link MappedUserFile}, {@code false} to read it line by line.
+     */
+    public JournaledUserRepository(String file, long compactThreshold, boolean memoryMapped) {
+        super(file, memoryMapped);
+        this.journalFile = new File(file + ".journal");
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * Loads the snapshot, replays the journal on top of it and opens the
+     * journal for appending.
+     *
+     * @return The recovered users.
+     * @throws IOException If the snapshot cannot be read. The journal is then
+     * left alone, and the repository becomes read-only.
+     */
+    @Override
+    protected List<User> loadUsers() throws IOException {
+        CRC32 crc = new CRC32();
+        List<User> loaded = readUsers(crc);
+        String base = Long.toHexString(crc.getValue());
+
+        File pendingJournal = pendingJournalFile();
+        if (pendingJournal.exists() && !hasBase(journalFile, base) && hasBase(pendingJournal, base)) {
+            // A crash during a compaction replaced the snapshot, but not the journal yet
+            replaceFile(pendingJournal, journalFile);
+        }
+        if (!replayJournal(loaded, base) || !openJournal()) {
+            resetJournal(base);
+        }
+
+        if (syncTask == null) {
+            syncTask = JOURNAL_EXECUTOR.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            shutdownHook = new Thread(this::sync, "user-journal-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+        return loaded;
+    }
+
+    /*
+     * If the journal cannot be written, the change falls back to writing a
+     * new snapshot, which also resets the journal to it (see
+     * writeSnapshot()).
+     */
+    @Override
+    protected boolean persistAdd(User user) {
+        return appendRecord("ADD," + user.toCsv()) || writeSnapshot();
+    }
+
+    /*
+     * The ADD records of a batch are appended in a single write.
+     */
+    @Override
+    protected boolean persistAddAll(List<User> added) {
+        StringBuilder records = new StringBuilder(added.size() * 64);
+        for (User user : added) {
+            records.append("ADD,").append(user.toCsv()).append('\n');
+        }
+        records.setLength(records.length() - 1);
+        return appendRecord(records.toString()) || writeSnapshot();
+    }
+
+    @Override
+    protected boolean persistUpdate(int index, User user) {
+        return appendRecord("UPDATE," + index + "," + user.toCsv()) || writeSnapshot();
+    }
+
+    @Override
+    protected boolean persistDelete(int index) {
+        return appendRecord("DELETE," + index) || writeSnapshot();
+    }
+
+    /**
+     * Stops the periodic {@code fsync}, removes the shutdown hook, and syncs
+     * and closes the journal. A change made after this is stored by writing
+     * a new snapshot.
+     */
+    public synchronized void close() {
+        if (syncTask != null) {
+            syncTask.cancel(false);
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down, the hook syncs the journal.
+            }
+        }
+        sync();
+        closeJournal();
+    }
+
+    /**
+     * Forces all appended records to disk. This is called periodically by the
+     * journal thread and on shutdown, but may also be called directly.
+     */
+    public synchronized void sync() {
+        if (!dirty || journal == null) {
+            return;
+        }
+        try {
+            journal.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            Metrics.error("journal.sync", e);
+        }
+    }
+
+    /**
+     * Appends a record to the journal and schedules a compaction if the
+     * journal has grown past the threshold. Callers must hold the lock of this
+     * repository.
+     *
+     * @param record The record to append (without a trailing line
+     * separator). Several records may be separated by line separators.
+     * @return {@code true} if the record was written, otherwise {@code false}.
+     */
+    private boolean appendRecord(String record) {
+        if (journal == null) {
+            return false;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            dirty = true;
+
+            if (!compacting && journal.size() > compactThreshold) {
+                compacting = true;
+                JOURNAL_EXECUTOR.execute(this::compact);
+            }
+            return true;
+        } catch (IOException e) {
+            Metrics.error("journal.append", e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the in-memory users as a new snapshot and resets the journal.
+     * Runs on the journal thread.
+     * <p>
+     * Only copying the users and swapping the files hold the lock of this
+     * repository. The snapshot is written in between, while other threads
+     * keep reading and changing the users. The records they append meanwhile
+     * are copied from the end of the old journal into the new one. If the
+     * journal was reset or closed in the meantime (a change fell back to a
+     * snapshot), the written snapshot is thrown away.
+     * </p>
+     */
+    private void compact() {
+        long start = Metrics.timer("journal.compact").start();
+        File snapshot = new File(file.getPath() + ".compact");
+        List<User> copy;
+        long journalPosition;
+        int generation;
+        synchronized (this) {
+            if (journal == null) {
+                compacting = false;
+                return;
+            }
+            sync();
+            copy = new ArrayList<>(users());
+            try {
+                journalPosition = journal.size();
+            } catch (IOException e) {
+                Metrics.error("journal.compact", e);
+                compacting = false;
+                return;
+            }
+            generation = journalGeneration;
+        }
+
+        CRC32 crc = new CRC32();
+        boolean written = writeUsers(snapshot, copy, crc);
+
+        synchronized (this) {
+            try {
+                if (written && generation == journalGeneration && journal != null) {
+                    swapSnapshot(snapshot, Long.toHexString(crc.getValue()), journalPosition);
+                }
+            } finally {
+                snapshot.delete();
+                compacting = false;
+                Metrics.timer("journal.compact").stop(start);
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot with a compacted one and the journal with one
+     * that holds the records appended after {@code journalPosition}. The new
+     * journal is written first, so a crash between the two replacements
+     * leaves a journal that matches the new snapshot (see
+     * {@link #loadUsers()}). Callers must hold the lock of this repository.
+     */
+    private void swapSnapshot(File snapshot, String base, long journalPosition) {
+        sync();
+        byte[] tail;
+        try (FileChannel old = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (old.size() - journalPosition));
+            while (buffer.hasRemaining() && old.read(buffer, journalPosition + buffer.position()) >= 0) {
+                // Reads the records appended while the snapshot was written
+            }
+            tail = buffer.array();
+        } catch (IOException e) {
+            Metrics.error("journal.compact", e);
+            return;
+        }
+
+        File pendingJournal = pendingJournalFile();
+        if (!writeJournal(pendingJournal, base, tail)) {
+            return;
+        }
+        if (!replaceFile(snapshot, file)) {
+            pendingJournal.delete();
+            return;
+        }
+        closeJournal();
+        if (!replaceFile(pendingJournal, journalFile) || !openJournal()) {
+            closeJournal(); // Later changes write a snapshot until the journal can be reset
+        }
+    }
+
+    /**
+     * Writes the in-memory users as a new snapshot and resets the journal to
+     * it. If the journal cannot be reset, it is closed, and every later
+     * change writes a new snapshot (retrying the reset) until it can. A
+     * journal that still holds the BASE of the previous snapshot is
+     * discarded on the next startup, which is correct because the new
+     * snapshot already contains its records. Callers must hold the lock of
+     * this repository.
+     *
+     * @return {@code true} if the snapshot was written, otherwise
+     * {@code false}.
+     */
+    private boolean writeSnapshot() {
+        CRC32 crc = new CRC32();
+        if (!writeUsersToFile(file, users(), crc)) {
+            return false;
+        }
+        if (!resetJournal(Long.toHexString(crc.getValue()))) {
+            closeJournal();
+        }
+        return true;
+    }
+
+    /**
+     * Applies the records of the journal to the loaded snapshot. A torn last
+     * record is cut off the journal so new records start on a fresh line.
+     *
+     * @param loaded The users of the snapshot.
+     * @param base The checksum of the snapshot.
+     * @return {@code true} if the journal belongs to the snapshot,
+     * {@code false} if it is missing or has to be reset.
+     */
+    private boolean replayJournal(List<User> loaded, String base) {
+        if (!journalFile.exists()) {
+            return false;
+        }
+
+        byte[] content;
+        try {
+            content = Files.readAllBytes(journalFile.toPath());
+        } catch (IOException e) {
+            return false;
+        }
+
+        int lineStart = 0;
+        boolean header = true;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            lineStart = i + 1;
+
+            if (header) {
+                if (!line.equals("BASE," + base)) {
+                    return false;
+                }
+                header = false;
+            } else {
+                applyRecord(loaded, line);
+            }
+        }
+
+        if (!header && lineStart < content.length) {
+            try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(lineStart);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return !header;
+    }
+
+    /**
+     * Applies a single journal record. Unknown or malformed records are
+     * skipped.
+     *
+     * @param loaded The users to apply the record to.
+     * @param record The journal record.
+     */
+    private static void applyRecord(List<User> loaded, String record) {
+        String[] parts = record.split(",", 3);
+        try {
+            switch (parts[0]) {
+                case "ADD" -> {
+                    User user = User.fromCsv(record.substring(4));
+                    if (user != null) {
+                        loaded.add(user);
+                    }
+                }
+                case "UPDATE" -> {
+                    int index = Integer.parseInt(parts[1]);
+                    User user = User.fromCsv(parts[2]);
+                    if (user != null && index >= 0 && index < loaded.size()) {
+                        loaded.set(index, user);
+                    }
+                }
+                case "DELETE" -> {
+                    int index = Integer.parseInt(parts[1]);
+                    if (index >= 0 && index < loaded.size()) {
+                        loaded.remove(index);
+                    }
+                }
+                default -> {
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        }
+    }
+
+    /**
+     * Opens the existing journal for appending.
+     *
+     * @return {@code true} if the journal was opened, otherwise {@code false}.
+     */
+    private boolean openJournal() {
+        try {
+            journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the journal with an empty one that only holds the
+     * {@code BASE} header of the given snapshot.
+     *
+     * @param base The checksum of the current snapshot.
+     * @return {@code true} if the journal was reset and reopened, otherwise
+     * {@code false}.
+     */
+    private boolean resetJournal(String base) {
+        File temp = pendingJournalFile();
+        if (!writeJournal(temp, base, new byte[0])) {
+            return false;
+        }
+        closeJournal();
+        return replaceFile(temp, journalFile) && openJournal();
+    }
+
+    /**
+     * Writes a journal file with the {@code BASE} header of a snapshot,
+     * followed by records, and forces it to disk.
+     *
+     * @return {@code true} if the file was written, otherwise {@code false}.
+     */
+    private static boolean writeJournal(File target, String base, byte[] records) {
+        try (FileOutputStream out = new FileOutputStream(target)) {
+            out.write(("BASE," + base + "\n").getBytes(StandardCharsets.UTF_8));
+            out.write(records);
+            out.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            Metrics.error("journal.reset", e);
+            return false;
+        }
+    }
+
+    /**
+     * @return The file a new journal is written to before it replaces the
+     * journal.
+     */
+    private File pendingJournalFile() {
+        return new File(journalFile.getPath() + ".tmp");
+    }
+
+    /**
+     * Checks if a journal file starts with the {@code BASE} header of a
+     * snapshot.
+     */
+    private static boolean hasBase(File journalFile, String base) {
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            return ("BASE," + base).equals(reader.readLine());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the journal. Changes are then persisted by rewriting the
+     * snapshot until the journal is reset.
+     */
+    private void closeJournal() {
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (IOException e) {
+        }
+        journal = null;
+        dirty = false;
+        journalGeneration++;
+    }
+}
@@ -0,0 +1,308 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Checksum;
+
+/**
+ * A read-only, memory-mapped view of a comma separated user file
+ * (<code>username,email,password,role,createdAt</code>).
+ * <p>
+ * The file is mapped with {@link FileChannel#map} and scanned once for line
+ * and comma bytes, without decoding it into characters. Only the offsets of
+ * every field are kept, so a field is turned into a {@link String} only when
+ * {@link #field(int, int)} or {@link #user(int)} is called. Fields that are
+ * never read are never copied out of the mapping, and
+ * {@link #fieldEquals(int, int, String)} compares a field without
+ * materializing it at all.
+ * </p>
+ * <p>
+ * The lines are parsed like {@link User#fromCsv(String)}: blank and malformed
+ * lines are skipped, and a line may end with <code>\n</code> or
+ * <code>\r\n</code>. Scanning bytes is safe for UTF-8, as the bytes of a comma
+ * or line separator never occur inside a multi-byte character.
+ * </p>
+ * <p>
+ * The mapping belongs to a confined {@link Arena}, so it may only be used by
+ * the thread that opened it, and it is unmapped as soon as the file is
+ * closed (not whenever the garbage collector gets to it). This matters
+ * because a mapped file cannot be replaced on some platforms, and the
+ * repositories replace their data file on every rewrite.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class MappedUserFile implements AutoCloseable {
+
+    /**
+     * The number of fields of a user: username, email, password, role and
+     * createdAt.
+     */
+    public static final int FIELDS = 5;
+
+    private static final int SCAN_BLOCK_SIZE = 64 * 1024;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+
+    /*
+     * For every row, the offset of its line in the file and the end of each of
+     * its fields relative to that offset. A field starts one byte after the
+     * end of the previous one.
+     */
+    private long[] lineStarts;
+    private int[] fieldEnds;
+    private int rowCount;
+    private byte[] scratch = new byte[128];
+
+    private MappedUserFile(Arena arena, MemorySegment segment) {
+        this.arena = arena;
+        this.segment = segment;
+        int estimatedRows = (int) Math.min(Math.max(segment.byteSize() / 48, 16), Integer.MAX_VALUE / FIELDS);
+        this.lineStarts = new long[estimatedRows];
+        this.fieldEnds = new int[estimatedRows * FIELDS];
+        scan();
+    }
+
+    /**
+     * Maps and scans a user file.
+     *
+     * @param file The file containing user data.
+     * @return The mapped file. It must be closed by the same thread.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static MappedUserFile open(File file) throws IOException {
+        Arena arena = Arena.ofConfined();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // A mapping stays valid after its channel is closed.
+            MemorySegment segment = channel.size() == 0
+                    ? MemorySegment.NULL
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new MappedUserFile(arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every user of a file through a mapping, like
+     * {@link FileUserRepository#readUsersFromFile(File, Checksum)} does with a
+     * reader.
+     *
+     * @param file The file containing user data.
+     * @param checksum The checksum to update with every byte of the file, or
+     * {@code null}.
+     * @return A mutable {@link List} of the users.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    static List<User> readUsers(File file, Checksum checksum) throws IOException {
+        try (MappedUserFile mapped = open(file)) {
+            if (checksum != null) {
+                mapped.update(checksum);
+            }
+            List<User> users = new ArrayList<>(mapped.rowCount());
+            for (int row = 0; row < mapped.rowCount(); row++) {
+                users.add(mapped.user(row));
+            }
+            return users;
+        }
+    }
+
+    /**
+     * @return The number of well-formed user rows in the file.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the offset of a field in the file.
+     *
+     * @param row The row, from 0 to {@link #rowCount()} - 1.
+     * @param field The field, from 0 (username) to 4 (createdAt).
+     * @return The byte offset of the first byte of the field.
+     */
+    public long fieldOffset(int row, int field) {
+        checkIndex(row, field);
+        return lineStarts[row] + (field == 0 ? 0 : fieldEnds[row * FIELDS + field - 1] + 1);
+    }
+
+    /**
+     * Returns the length of a field in bytes.
+     *
+     * @param row The row, from 0 to {@link #rowCount()} - 1.
+     * @param field The field, from 0 (username) to 4 (createdAt).
+     * @return The number of UTF-8 bytes of the field.
+     */
+    public int fieldLength(int row, int field) {
+        checkIndex(row, field);
+        int start = field == 0 ? 0 : fieldEnds[row * FIELDS + field - 1] + 1;
+        return fieldEnds[row * FIELDS + field] - start;
+    }
+
+    /**
+     * Decodes a single field.
+     *
+     * @param row The row, from 0 to {@link #rowCount()} - 1.
+     * @param field The field, from 0 (username) to 4 (createdAt).
+     * @return The value of the field.
+     */
+    public String field(int row, int field) {
+        int length = fieldLength(row, field);
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, fieldOffset(row, field), scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a field with a value without decoding the field.
+     *
+     * @param row The row, from 0 to {@link #rowCount()} - 1.
+     * @param field The field, from 0 (username) to 4 (createdAt).
+     * @param value The value to compare with.
+     * @return {@code true} if the field has exactly the bytes of the UTF-8
+     * encoded value.
+     */
+    public boolean fieldEquals(int row, int field, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length != fieldLength(row, field)) {
+            return false;
+        }
+        long offset = fieldOffset(row, field);
+        for (int i = 0; i < bytes.length; i++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes all fields of a row.
+     *
+     * @param row The row, from 0 to {@link #rowCount()} - 1.
+     * @return The {@link User} of the row.
+     */
+    public User user(int row) {
+        return new User(field(row, 0), field(row, 1), field(row, 2), field(row, 3), field(row, 4));
+    }
+
+    /**
+     * Updates a checksum with every byte of the file, straight from the
+     * mapping.
+     *
+     * @param checksum The checksum to update.
+     */
+    public void update(Checksum checksum) {
+        long size = segment.byteSize();
+        for (long offset = 0; offset < size; offset += Integer.MAX_VALUE) {
+            long length = Math.min(Integer.MAX_VALUE, size - offset);
+            checksum.update(segment.asSlice(offset, length).asByteBuffer());
+        }
+    }
+
+    /**
+     * Unmaps the file. The field accessors must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * Finds the lines and the field boundaries of the whole file in a single
+     * pass. The mapping is copied into a small block buffer and scanned as a
+     * plain array, which is much faster than reading it byte by byte.
+     * <p>
+     * Like {@link String#split(String)}, trailing empty fields do not count,
+     * and any fields after the fifth one are ignored. Blank and malformed
+     * lines are skipped.
+     * </p>
+     */
+    private void scan() {
+        long size = segment.byteSize();
+        byte[] block = new byte[SCAN_BLOCK_SIZE];
+        long lineStart = 0;
+        int field = 0;
+        boolean hasLastField = false;
+        boolean carriageReturn = false;
+
+        for (long blockStart = 0; blockStart < size; blockStart += block.length) {
+            int length = (int) Math.min(block.length, size - blockStart);
+            MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, blockStart, block, 0, length);
+            for (int i = 0; i < length; i++) {
+                byte b = block[i];
+                if (b == '\n') {
+                    long position = blockStart + i;
+                    endLine(lineStart, carriageReturn ? position - 1 : position, field, hasLastField);
+                    lineStart = position + 1;
+                    field = 0;
+                    hasLastField = false;
+                    carriageReturn = false;
+                    continue;
+                }
+                if (carriageReturn && field >= FIELDS - 1) {
+                    hasLastField = true; // The \r was part of the line
+                }
+                carriageReturn = b == '\r';
+                if (carriageReturn || (field >= FIELDS && hasLastField)) {
+                    continue;
+                }
+                if (b == ',') {
+                    if (field < FIELDS) {
+                        ensureRowCapacity();
+                        fieldEnds[rowCount * FIELDS + field] = (int) (blockStart + i - lineStart);
+                    }
+                    field++;
+                } else if (field >= FIELDS - 1) {
+                    hasLastField = true;
+                }
+            }
+        }
+        if (lineStart < size) {
+            endLine(lineStart, carriageReturn ? size - 1 : size, field, hasLastField);
+        }
+    }
+
+    /**
+     * Keeps the row whose fields were just scanned if it has all five fields.
+     */
+    private void endLine(long start, long end, int field, boolean hasLastField) {
+        if (!hasLastField || end - start > Integer.MAX_VALUE) {
+            return; // Blank or malformed line
+        }
+        ensureRowCapacity();
+        if (field == FIELDS - 1) {
+            fieldEnds[rowCount * FIELDS + field] = (int) (end - start);
+        }
+        lineStarts[rowCount++] = start;
+    }
+
+    private void ensureRowCapacity() {
+        if (rowCount == lineStarts.length) {
+            int capacity = rowCount + (rowCount >> 1) + 1;
+            lineStarts = Arrays.copyOf(lineStarts, capacity);
+            fieldEnds = Arrays.copyOf(fieldEnds, capacity * FIELDS);
+        }
+    }
+
+    private void checkIndex(int row, int field) {
+        if (row < 0 || row >= rowCount || field < 0 || field >= FIELDS) {
+            throw new IndexOutOfBoundsException("row " + row + ", field " + field);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package storage;
+
+import config.AppConfig;
+
+/**
+ * This class holds the shared {@link UserRepository} instances of the
+ * application, so that every screen reads the same in-memory users instead
+ * of loading the data files on its own.
+ *
+ * <ul>
+ * <li>{@link #admins()} - Admin users stored in
+ * <code>./src/data/users.txt</code> by default.</li>
+ * <li>{@link #members()} - Member users stored in
+ * <code>./src/data/userManagement/manageableUsers.txt</code> by default.
+ * Changes to the members are journaled by {@link JournaledUserRepository}
+ * by default.</li>
+ * </ul>
+ *
+ * <p>
+ * The files and their {@link StorageBackend}s are set in the
+ * {@link AppConfig}. The text files are read through a
+ * {@link MappedUserFile}.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class Repositories {
+
+    private static UserRepository admins;
+    private static UserRepository members;
+
+    private Repositories() {
+    }
+
+    /**
+     * @return The shared repository of admin users.
+     */
+    public static synchronized UserRepository admins() {
+        if (admins == null) {
+            AppConfig config = AppConfig.current();
+            admins = config.adminsBackend().open(config.adminsFile());
+        }
+        return admins;
+    }
+
+    /**
+     * @return The shared repository of member users.
+     */
+    public static synchronized UserRepository members() {
+        if (members == null) {
+            AppConfig config = AppConfig.current();
+            members = config.membersBackend().open(config.membersFile());
+        }
+        return members;
+    }
+}
@@ -0,0 +1,118 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The ways a {@link UserRepository} can store its users in a data file. The
+ * backend of the admins and of the members is chosen in the configuration of
+ * the application (see {@code config.AppConfig}).
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public enum StorageBackend {
+
+    /**
+     * A comma separated text file that is rewritten or appended to on every
+     * change ({@link FileUserRepository}).
+     */
+    CSV {
+        @Override
+        UserRepository create(String file) {
+            return new FileUserRepository(file, true);
+        }
+    },
+    /**
+     * A comma separated text file with a journal of the changes that is
+     * compacted into the file from time to time
+     * ({@link JournaledUserRepository}).
+     */
+    JOURNALED {
+        @Override
+        UserRepository create(String file) {
+            return new JournaledUserRepository(file, JournaledUserRepository.DEFAULT_COMPACT_THRESHOLD, true);
+        }
+    },
+    /**
+     * A binary file ({@link BinaryUserRepository}). Existing text files can
+     * be migrated with {@link UserFileConverter}.
+     */
+    BINARY {
+        @Override
+        UserRepository create(String file) {
+            return new BinaryUserRepository(file);
+        }
+    };
+
+    /**
+     * Creates a repository of a data file with this backend. The file is not
+     * read until the repository is first used.
+     *
+     * @param file The path to the data file.
+     * @return The repository.
+     * @throws IllegalArgumentException If the file is not in the format of
+     * this backend (see {@link #checkFormat(String)}).
+     */
+    public UserRepository open(String file) {
+        checkFormat(file);
+        return create(file);
+    }
+
+    /**
+     * Creates the repository of a data file, without checking its format.
+     */
+    abstract UserRepository create(String file);
+
+    /**
+     * Checks that an existing data file is in the format of this backend: a
+     * binary user file for {@link #BINARY}, a text file otherwise. Opening a
+     * file with the wrong backend would lose its users on the next write, so
+     * it has to be converted with {@link UserFileConverter} first. A missing
+     * or empty file is in every format.
+     *
+     * @param file The path to the data file.
+     * @throws IllegalArgumentException If the file is in the other format or
+     * cannot be read.
+     */
+    public void checkFormat(String file) {
+        File data = new File(file);
+        if (!data.isFile() || data.length() == 0) {
+            return;
+        }
+        boolean binary;
+        try {
+            binary = BinaryUserFile.isBinaryUserFile(data);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the data file " + file + ".", e);
+        }
+        if (binary != (this == BINARY)) {
+            String conversion = binary ? "to-csv" : "to-binary";
+            throw new IllegalArgumentException("The data file " + file + " is a " + (binary ? "binary" : "text")
+                    + " file, but the storage backend is " + name().toLowerCase(Locale.ROOT)
+                    + ". Convert it first with: java storage.UserFileConverter " + conversion + " <from> <to>");
+        }
+    }
+
+    /**
+     * Returns the backend of a name, ignoring case: <code>csv</code>,
+     * <code>journaled</code> or <code>binary</code>.
+     *
+     * @param name The name of the backend.
+     * @return The backend.
+     * @throws IllegalArgumentException If there is no backend of that name.
+     */
+    public static StorageBackend parse(String name) {
+        for (StorageBackend backend : values()) {
+            if (backend.name().equalsIgnoreCase(name.trim())) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage backend '" + name + "'. Expected one of: "
+                + Arrays.stream(values()).map(b -> b.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")) + ".");
+    }
+}
@@ -0,0 +1,60 @@
+package storage;
+
+/**
+ * This record represents a single user row of the RusByte Net - User
+ * Management system. It is the typed form of a line stored in
+ * <code>users.txt</code> or <code>manageableUsers.txt</code>:
+ * <pre>
+ * username,email,password,role,createdAt
+ * </pre>
+ *
+ * @param username The display name of the user.
+ * @param email The email address of the user (used as the lookup key).
+ * @param password The password of the user.
+ * @param role The role of the user ("admin" or "member").
+ * @param createdAt The date the user was created (yyyy-MM-dd).
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public record User(String username, String email, String password, String role, String createdAt) {
+
+    /**
+     * Checks if this user has the admin role.
+     *
+     * @return {@code true} if the role is "admin", otherwise {@code false}.
+     */
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(role);
+    }
+
+    /**
+     * Parses a comma separated line into a {@code User}.
+     *
+     * @param line A line in the format
+     * <code>username,email,password,role,createdAt</code>.
+     * @return The parsed {@code User}, or {@code null} if the line is blank or
+     * does not have all five fields.
+     */
+    public static User fromCsv(String line) {
+        if (line == null || line.isBlank()) {
+            return null;
+        }
+        String[] fields = line.split(",");
+        if (fields.length < 5) {
+            return null;
+        }
+        return new User(fields[0], fields[1], fields[2], fields[3], fields[4]);
+    }
+
+    /**
+     * Formats this user as a comma separated line (without a line separator).
+     *
+     * @return The user in the format
+     * <code>username,email,password,role,createdAt</code>.
+     */
+    public String toCsv() {
+        return username + "," + email + "," + password + "," + role + "," + createdAt;
+    }
+}
@@ -0,0 +1,105 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Converts user data files between the comma separated text format and the
+ * binary format of {@link BinaryUserFile}.
+ * <p>
+ * It can be run on its own to migrate an existing file:
+ * </p>
+ * <pre>
+ * java storage.UserFileConverter to-binary manageableUsers.txt manageableUsers.bin
+ * java storage.UserFileConverter to-csv manageableUsers.bin manageableUsers.txt
+ * </pre>
+ * <p>
+ * A user whose fields contain a comma or a line separator cannot be written
+ * as text, so such a conversion to text fails instead of corrupting the file.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class UserFileConverter {
+
+    private UserFileConverter() {
+    }
+
+    /**
+     * Converts a comma separated user file to a binary user file. Blank or
+     * malformed lines are skipped, like they are when the file is loaded.
+     *
+     * @param csv The comma separated file to read.
+     * @param binary The binary file to write.
+     * @return {@code true} if the binary file was written, otherwise
+     * {@code false}.
+     */
+    public static boolean csvToBinary(File csv, File binary) {
+        if (!csv.exists()) {
+            return false;
+        }
+        List<User> users;
+        try {
+            users = FileUserRepository.readUsersFromFile(csv);
+        } catch (IOException e) {
+            return false;
+        }
+        return BinaryUserFile.writeUsers(binary, users);
+    }
+
+    /**
+     * Converts a binary user file to a comma separated user file.
+     *
+     * @param binary The binary file to read.
+     * @param csv The comma separated file to write.
+     * @return {@code true} if the comma separated file was written, otherwise
+     * {@code false} (also when a user cannot be represented as text).
+     */
+    public static boolean binaryToCsv(File binary, File csv) {
+        List<User> users;
+        try {
+            users = BinaryUserFile.readUsers(binary);
+        } catch (IOException e) {
+            return false;
+        }
+        for (User user : users) {
+            if (!isCsvSafe(user)) {
+                return false;
+            }
+        }
+        return FileUserRepository.writeUsersToFile(csv, users);
+    }
+
+    private static boolean isCsvSafe(User user) {
+        for (String field : new String[]{user.username(), user.email(), user.password(), user.role(), user.createdAt()}) {
+            if (field == null || field.isEmpty() || field.indexOf(',') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts a user file from the command line.
+     *
+     * @param args <code>to-binary &lt;csv&gt; &lt;binary&gt;</code> or
+     * <code>to-csv &lt;binary&gt; &lt;csv&gt;</code>.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("to-binary") || args[0].equals("to-csv"))) {
+            System.err.println("Usage: UserFileConverter to-binary <csv> <binary> | to-csv <binary> <csv>");
+            System.exit(2);
+        }
+        File source = new File(args[1]);
+        File target = new File(args[2]);
+        boolean converted = args[0].equals("to-binary") ? csvToBinary(source, target) : binaryToCsv(source, target);
+        if (!converted) {
+            System.err.println("Unable to convert " + source + " to " + target);
+            System.exit(1);
+        }
+        System.out.println("Converted " + source + " to " + target);
+    }
+}
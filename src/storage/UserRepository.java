@@ -0,0 +1,110 @@
+package storage;
+
+import java.util.List;
+
+/**
+ * This interface describes the storage engine of the users of the system. A
+ * repository loads its users once and serves every read from memory. Users
+ * are addressed by their position (index) in the repository, which is the
+ * same order they are stored on disk.
+ *
+ * <p>
+ * <b>Key Features:</b></p>
+ * <ul>
+ * <li>In-memory reads of all users.</li>
+ * <li>Lookup of users by email.</li>
+ * <li>Create, Update and Delete of users that are persisted by the
+ * implementation.</li>
+ * </ul>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ * @see FileUserRepository
+ */
+public interface UserRepository {
+
+    /**
+     * Returns a snapshot of all users in storage order.
+     *
+     * @return An unmodifiable {@link List} of all users.
+     */
+    List<User> findAll();
+
+    /**
+     * Returns the user at the given position.
+     *
+     * @param index The position of the user.
+     * @return The {@code User}, or {@code null} if the index is out of range.
+     */
+    User get(int index);
+
+    /**
+     * Finds the first user with the given email (case-insensitive).
+     *
+     * @param email The email to look for.
+     * @return The {@code User}, or {@code null} if no user has this email.
+     */
+    User findByEmail(String email);
+
+    /**
+     * Checks if a user with the given email (case-insensitive) exists.
+     *
+     * @param email The email to look for.
+     * @return {@code true} if the email is already in use, otherwise
+     * {@code false}.
+     */
+    default boolean existsByEmail(String email) {
+        return findByEmail(email) != null;
+    }
+
+    /**
+     * Returns the current position of a user that was read from this
+     * repository.
+     *
+     * @param user The user, as returned by {@link #get(int)} or
+     * {@link #findByEmail(String)}.
+     * @return The position of the user, or {@code -1} if it is no longer in
+     * the repository.
+     */
+    int indexOf(User user);
+
+    /**
+     * @return The number of users in the repository.
+     */
+    int size();
+
+    /**
+     * Adds a new user at the end of the repository and persists it.
+     *
+     * @param user The user to add.
+     * @return {@code true} if the user was stored, otherwise {@code false}.
+     */
+    boolean add(User user);
+
+    /**
+     * Adds new users at the end of the repository, in the given order, and
+     * persists them together. Either all of them are stored or none.
+     *
+     * @param users The users to add.
+     * @return {@code true} if the users were stored, otherwise {@code false}.
+     */
+    boolean addAll(List<User> users);
+
+    /**
+     * Replaces the user at the given position and persists the change.
+     *
+     * @param index The position of the user to replace.
+     * @param user The new details of the user.
+     * @return {@code true} if the user was updated, otherwise {@code false}.
+     */
+    boolean update(int index, User user);
+
+    /**
+     * Removes the user at the given position and persists the change.
+     *
+     * @param index The position of the user to remove.
+     * @return {@code true} if the user was deleted, otherwise {@code false}.
+     */
+    boolean delete(int index);
+}
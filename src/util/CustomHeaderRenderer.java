@@ -7,9 +7,13 @@ import javax.swing.table.*;
 /**
  * This class extends {@link DefaultTableCellRenderer} and customizes the
  * appearance of table headers by setting an image icon next to the column
- * title. Additionally, I have implemented a custom image resizer
- * {@code customImageResizer} to ensure that the icons fit properly within the
- * table header.
+ * title. The icon is scaled to fit the table header by the {@link IconCache}.
+ * <p>
+ * The header is painted again on every scroll, resize and hover, so the
+ * label, its icon and its font are created once per column when the renderer
+ * is created and reused for every paint. Painting the header does not read
+ * or scale any image.
+ * </p>
  *
  * @author Eric Russel M. Lopez
  * @version 23.0.1 (Java SE 23.0.1)
@@ -17,17 +21,28 @@ import javax.swing.table.*;
  */
 public class CustomHeaderRenderer extends DefaultTableCellRenderer {
 
-    private final String icon;
+    private static final int ICON_SIZE = 20;
+    private static final Font HEADER_FONT = new Font("Arial", Font.BOLD, 18);
 
-    customImageResizer customSizeImage = new customImageResizer();
+    private final JLabel label;
 
+    /**
+     * Creates the header renderer of one column.
+     *
+     * @param icon The classpath name of the icon of the column, e.g.
+     * <code>/icons/user-solid.png</code>.
+     */
     public CustomHeaderRenderer(String icon) {
-        this.icon = icon;
         setHorizontalAlignment(SwingConstants.CENTER); // Center align text and icon
+
+        label = new JLabel("", IconCache.icon(icon, ICON_SIZE, ICON_SIZE), JLabel.CENTER);
+        label.setFont(HEADER_FONT);
+        label.setBorder(UIManager.getBorder("TableHeader.cellBorder"));
+        label.setHorizontalTextPosition(SwingConstants.RIGHT);
     }
 
     /**
-     * This method sets the column name text along with the specified icon.
+     * This method sets the column name text on the label of the column.
      *
      * @param table the {@code JTable} this header belongs to
      * @param value the column name (text)
@@ -39,10 +54,10 @@ public class CustomHeaderRenderer extends DefaultTableCellRenderer {
      */
     @Override
     public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-        JLabel label = new JLabel(value.toString(), customSizeImage.resizeIcon(new ImageIcon(icon), 20, 20), JLabel.CENTER);
-        label.setFont(new Font("Arial", Font.BOLD, 18));
-        label.setBorder(UIManager.getBorder("TableHeader.cellBorder"));
-        label.setHorizontalTextPosition(SwingConstants.RIGHT);
+        String text = value != null ? value.toString() : "";
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
         return label;
     }
 }
@@ -0,0 +1,112 @@
+package util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.swing.ImageIcon;
+import metrics.Metrics;
+
+/**
+ * A shared cache of the scaled icons of the screens.
+ * <p>
+ * Every image is decoded once by {@link Resources}, from the classpath (e.g.
+ * <code>/icons/user-solid.png</code>), and every size of it is scaled once
+ * into a {@link BufferedImage}. The screens then share the same
+ * {@link ImageIcon} for the same image and size, instead of decoding the file
+ * and scaling it with {@link Image#getScaledInstance(int, int, int)} (see
+ * {@link customImageResizer}) every time an icon is created.
+ * </p>
+ * <p>
+ * The icons are keyed by resource, width, height and the scale of the screen
+ * (HiDPI). On a scaled screen the icon keeps its size in the layout, but is
+ * painted from an image rendered at the scaled size, so it stays sharp.
+ * </p>
+ * <p>
+ * The icons must not be changed by the callers, since they are shared.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class IconCache {
+
+    private record Key(String resource, int width, int height, double scale) {
+
+    }
+
+    private static final Map<Key, ImageIcon> ICONS = new ConcurrentHashMap<>();
+
+    private IconCache() {
+    }
+
+    /**
+     * Returns the shared icon of an image at the given size.
+     *
+     * @param resource The classpath name of the image, e.g.
+     * <code>/icons/user-solid.png</code>.
+     * @param width The width of the icon.
+     * @param height The height of the icon.
+     * @return The icon. A missing image gives a transparent icon of the same
+     * size.
+     */
+    public static ImageIcon icon(String resource, int width, int height) {
+        return ICONS.computeIfAbsent(new Key(resource, width, height, screenScale()), IconCache::createIcon);
+    }
+
+    /**
+     * @return The scale of the default screen, {@code 1} if there is none.
+     */
+    private static double screenScale() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return 1;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().getDefaultTransform().getScaleX();
+    }
+
+    private static ImageIcon createIcon(Key key) {
+        long start = Metrics.timer("icons.scale").start();
+        BufferedImage source = Resources.image(key.resource());
+        BufferedImage base = scale(source, key.width(), key.height());
+        Image image = base;
+        if (key.scale() > 1) {
+            int width = (int) Math.ceil(key.width() * key.scale());
+            int height = (int) Math.ceil(key.height() * key.scale());
+            image = new BaseMultiResolutionImage(base, scale(source, width, height));
+        }
+        Metrics.timer("icons.scale").stop(start);
+        return new ImageIcon(image);
+    }
+
+    /**
+     * Scales an image with bicubic interpolation. Large reductions are done
+     * in steps of at most half the size, which keeps the quality of
+     * {@link Image#SCALE_SMOOTH} for the large logo images.
+     */
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage scaled = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = scaled;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+}
@@ -0,0 +1,138 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import metrics.Metrics;
+
+/**
+ * Loads the assets of the application (the icons, the logo and the loading
+ * animation) from the classpath, so the application starts from the JAR file
+ * alone, whatever the working directory is.
+ * <p>
+ * The assets are named by their classpath name, e.g.
+ * <code>/icons/user-solid.png</code> for <code>src/icons/user-solid.png</code>.
+ * Nothing is loaded until an asset is first asked for. Every name is resolved
+ * once and every image is decoded once; later calls return the cached
+ * result.
+ * </p>
+ * <p>
+ * Only when the classes are run from a directory (compiled without copying
+ * the assets next to them) is an asset that is missing from the classpath
+ * looked up in the <code>./src</code> directory instead. Running from the JAR
+ * never touches the file system.
+ * </p>
+ *
+ * @author Eric Russel M. Lopez
+ * @version 23.0.1 (Java SE 23.0.1)
+ * @since 2025
+ */
+public final class Resources {
+
+    private static final Map<String, Optional<URL>> URLS = new ConcurrentHashMap<>();
+    private static final Map<String, BufferedImage> IMAGES = new ConcurrentHashMap<>();
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private Resources() {
+    }
+
+    /**
+     * Returns the location of an asset.
+     *
+     * @param name The classpath name of the asset, e.g.
+     * <code>/icons/loadingicon.gif</code>.
+     * @return The location of the asset, or {@code null} if there is no such
+     * asset.
+     */
+    public static URL url(String name) {
+        return URLS.computeIfAbsent(name, Resources::resolve).orElse(null);
+    }
+
+    /**
+     * Returns the decoded image of an asset. The image is shared, so it must
+     * not be changed by the callers.
+     *
+     * @param name The classpath name of the image, e.g.
+     * <code>/assets/rusbytefaviconmain.png</code>.
+     * @return The image. A missing or unreadable image gives a transparent
+     * 1x1 image.
+     */
+    public static BufferedImage image(String name) {
+        return IMAGES.computeIfAbsent(name, Resources::read);
+    }
+
+    private static Optional<URL> resolve(String name) {
+        URL url = Resources.class.getResource(name);
+        if (url == null) {
+            url = DevelopmentSources.find(name);
+        }
+        if (url == null) {
+            Metrics.counter("resources.missing").increment();
+        }
+        return Optional.ofNullable(url);
+    }
+
+    private static BufferedImage read(String name) {
+        URL url = url(name);
+        if (url == null) {
+            return MISSING;
+        }
+        long start = Metrics.timer("resources.read").start();
+        try {
+            BufferedImage image = ImageIO.read(url);
+            return image != null ? image : MISSING;
+        } catch (IOException e) {
+            Metrics.error("resources.read", e);
+            return MISSING;
+        } finally {
+            Metrics.timer("resources.read").stop(start);
+        }
+    }
+
+    /**
+     * The <code>./src</code> directory, used for the assets missing from the
+     * classpath when the classes are not run from a JAR. Initialized on the
+     * first missing asset.
+     */
+    private static final class DevelopmentSources {
+
+        private static final Path ROOT = root();
+
+        private static Path root() {
+            try {
+                CodeSource classes = Resources.class.getProtectionDomain().getCodeSource();
+                if (classes != null && classes.getLocation() != null
+                        && !Files.isDirectory(Path.of(classes.getLocation().toURI()))) {
+                    return null; // Running from a JAR.
+                }
+            } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException | SecurityException e) {
+                return null;
+            }
+            Path root = Path.of("src");
+            return Files.isDirectory(root) ? root : null;
+        }
+
+        static URL find(String name) {
+            if (ROOT == null) {
+                return null;
+            }
+            File file = ROOT.resolve(name.startsWith("/") ? name.substring(1) : name).toFile();
+            try {
+                return file.isFile() ? file.toURI().toURL() : null;
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+    }
+}
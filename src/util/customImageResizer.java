@@ -11,6 +11,10 @@ import javax.swing.ImageIcon;
  * This custom class is useful for resizing icons used in buttons, labels, or
  * other UI components.
  * </p>
+ * <p>
+ * The icons of the screens are shared through the {@link IconCache}, which
+ * decodes and scales each image only once.
+ * </p>
  *
  * @author Eric Russel M. Lopez
  * @version 23.0.1 (Java SE 23.0.1)